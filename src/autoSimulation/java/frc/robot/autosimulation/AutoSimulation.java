@@ -0,0 +1,181 @@
+package frc.robot.autosimulation;
+
+import com.pathplanner.lib.commands.PPSwerveControllerCommand;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.commands.autonomous.TwoPieceBalanceBlueAuto;
+import frc.robot.commands.autonomous.TwoPieceBalanceRedAuto;
+import frc.robot.subsystems.arm.ArmIOSim;
+import frc.robot.subsystems.arm.ArmSubsystemImpl;
+import frc.robot.subsystems.claw.ClawIOSim;
+import frc.robot.subsystems.claw.ClawSubsystemImpl;
+import frc.robot.subsystems.drive.DriveSubsystemImpl;
+import frc.robot.subsystems.leds.LEDSubsystem;
+import frc.robot.subsystems.leds.LEDSubsystemImplSpark;
+import frc.robot.subsystems.vision.VisionSubsystem;
+import frc.robot.subsystems.vision.VisionSubsystemImpl;
+
+/**
+ * Runs the two piece balance autos against the simulated drive, arm and claw, with no GUI and
+ * without waiting for real time. The simulated clock is paused and stepped one loop at a time,
+ * so a 15 second auto takes as long as the code takes to run, and every run gets new subsystems
+ * so it starts from the same state. It reports how long each auto took and how far the robot was
+ * from the path while following it. There's no vision in the simulation, so the pose the path
+ * following error is measured from is pure odometry, which matches the simulated robot exactly.
+ * This is run by the simulateAutos Gradle task.
+ */
+public final class AutoSimulation {
+
+  private static final double AUTO_PERIOD_SECONDS = 15;
+
+  // The path following error over every run of the auto being simulated, PPSwerveControllerCommand reports it every loop
+  private static Statistics pathFollowingTranslationError;
+  private static Statistics pathFollowingRotationErrorDegrees;
+
+  private AutoSimulation() {}
+
+  /**
+   * @param args Optionally how many times to run each auto, 100 by default.
+   */
+  public static void main(String[] args) {
+    int runs = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+
+    if (!HAL.initialize(500, 0)) {
+      throw new IllegalStateException("Failed to initialize the simulated HAL");
+    }
+    // Time only moves forward when the simulation steps it
+    SimHooks.pauseTiming();
+    PPSwerveControllerCommand.setLoggingCallbacks(null, null, null, AutoSimulation::addPathFollowingError);
+
+    // These don't have any simulated state, so they are shared by every run
+    VisionSubsystem visionSubsystem = new VisionSubsystemImpl();
+    LEDSubsystem leds = new LEDSubsystemImplSpark();
+
+    simulate("TwoPieceBalanceBlueAuto", AllianceStationID.Blue1, runs,
+      (driveSubsystem, armSubsystem, clawSubsystem) ->
+        new TwoPieceBalanceBlueAuto(driveSubsystem, visionSubsystem, armSubsystem, clawSubsystem, leds)
+    );
+    simulate("TwoPieceBalanceRedAuto", AllianceStationID.Red1, runs,
+      (driveSubsystem, armSubsystem, clawSubsystem) ->
+        new TwoPieceBalanceRedAuto(driveSubsystem, visionSubsystem, armSubsystem, clawSubsystem, leds)
+    );
+    System.exit(0);
+  }
+
+  /**
+   * Runs an auto the given number of times and prints the results.
+   */
+  private static void simulate(String autoName, AllianceStationID allianceStation, int runs, AutoFactory autoFactory) {
+    DriverStationSim.setAllianceStationId(allianceStation);
+    DriverStationSim.setAutonomous(true);
+    DriverStationSim.setEnabled(true);
+    DriverStationSim.setDsAttached(true);
+    DriverStationSim.notifyNewData();
+
+    CommandScheduler commandScheduler = CommandScheduler.getInstance();
+    Statistics autoDurationSeconds = new Statistics();
+    pathFollowingTranslationError = new Statistics();
+    pathFollowingRotationErrorDegrees = new Statistics();
+    int finishedRuns = 0;
+    long simulationNanoseconds = 0;
+    double simulatedSeconds = 0;
+
+    for (int run = 0; run < runs; run++) {
+      DriveSubsystemImpl driveSubsystem = DriveSubsystemImpl.createSimulated();
+      ArmSubsystemImpl armSubsystem = new ArmSubsystemImpl(new ArmIOSim());
+      ClawSubsystemImpl clawSubsystem = new ClawSubsystemImpl(new ClawIOSim());
+      Command auto = autoFactory.create(driveSubsystem, armSubsystem, clawSubsystem);
+
+      long startNanoseconds = System.nanoTime();
+      double startTimestamp = Timer.getFPGATimestamp();
+      auto.schedule();
+      while (auto.isScheduled() && Timer.getFPGATimestamp() - startTimestamp < AUTO_PERIOD_SECONDS) {
+        SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+        commandScheduler.run();
+      }
+      double durationSeconds = Timer.getFPGATimestamp() - startTimestamp;
+      simulationNanoseconds += System.nanoTime() - startNanoseconds;
+      simulatedSeconds += durationSeconds;
+
+      if (!auto.isScheduled()) {
+        finishedRuns++;
+        autoDurationSeconds.add(durationSeconds);
+      }
+
+      commandScheduler.cancelAll();
+      commandScheduler.unregisterSubsystem(driveSubsystem, armSubsystem, clawSubsystem);
+      driveSubsystem.close();
+    }
+
+    DriverStationSim.setEnabled(false);
+    DriverStationSim.notifyNewData();
+
+    double simulationSeconds = simulationNanoseconds / 1e9;
+    System.out.println(autoName + ": " + finishedRuns + " of " + runs + " runs finished in "
+      + format(AUTO_PERIOD_SECONDS) + " s");
+    System.out.println("  duration mean " + format(autoDurationSeconds.getMean()) + " s, min "
+      + format(autoDurationSeconds.getMin()) + " s, max " + format(autoDurationSeconds.max) + " s");
+    System.out.println("  path following translation RMS " + format(pathFollowingTranslationError.getRms()) + " m, max "
+      + format(pathFollowingTranslationError.max) + " m");
+    System.out.println("  path following rotation RMS " + format(pathFollowingRotationErrorDegrees.getRms())
+      + " deg, max " + format(pathFollowingRotationErrorDegrees.max) + " deg");
+    System.out.println("  simulated " + format(simulatedSeconds) + " s in " + format(simulationSeconds) + " s ("
+      + format(simulatedSeconds / simulationSeconds) + "x real time)");
+  }
+
+  private static void addPathFollowingError(Translation2d translationError, Rotation2d rotationError) {
+    pathFollowingTranslationError.add(translationError.getNorm());
+    pathFollowingRotationErrorDegrees.add(Math.abs(rotationError.getDegrees()));
+  }
+
+  private static String format(double value) {
+    return String.format("%.4f", value);
+  }
+
+  /**
+   * Makes an auto that uses the given subsystems.
+   */
+  private interface AutoFactory {
+    Command create(DriveSubsystemImpl driveSubsystem, ArmSubsystemImpl armSubsystem, ClawSubsystemImpl clawSubsystem);
+  }
+
+  /**
+   * The mean, RMS, min and max of a set of values.
+   */
+  private static final class Statistics {
+    private int count = 0;
+    private double sum = 0;
+    private double sumOfSquares = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = 0;
+
+    private void add(double value) {
+      count++;
+      sum += value;
+      sumOfSquares += value * value;
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+    }
+
+    private double getMin() {
+      return count > 0 ? min : 0;
+    }
+
+    private double getMean() {
+      return count > 0 ? sum / count : 0;
+    }
+
+    private double getRms() {
+      return count > 0 ? Math.sqrt(sumOfSquares / count) : 0;
+    }
+  }
+}
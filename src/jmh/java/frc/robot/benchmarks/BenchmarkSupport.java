@@ -0,0 +1,47 @@
+package frc.robot.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import edu.wpi.first.hal.HAL;
+
+/**
+ * Shared setup for the benchmarks. Everything runs against the desktop HAL
+ * and the vendor simulation layers, which stand in for the motors, encoders,
+ * gyro and NetworkTables that the robot would normally talk to.
+ */
+final class BenchmarkSupport {
+
+  private static boolean isHalInitialized = false;
+
+  private BenchmarkSupport() {}
+
+  /**
+   * Initializes the simulated HAL once per forked JVM.
+   */
+  static synchronized void initializeHal() {
+    if (!isHalInitialized) {
+      if (!HAL.initialize(500, 0)) {
+        throw new IllegalStateException("Failed to initialize the simulated HAL");
+      }
+      isHalInitialized = true;
+    }
+  }
+
+  /**
+   * Reads a recorded Limelight JSON dump from the benchmark resources.
+   * @param name the file name in src/jmh/resources/limelight
+   */
+  static String readLimelightDump(String name) {
+    try (InputStream inputStream = BenchmarkSupport.class.getResourceAsStream("/limelight/" + name)) {
+      if (inputStream == null) {
+        throw new IllegalArgumentException("Missing Limelight dump " + name);
+      }
+      return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
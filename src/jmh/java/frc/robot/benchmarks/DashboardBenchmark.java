@@ -0,0 +1,61 @@
+package frc.robot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.extras.SmartDashboardLogger;
+
+/**
+ * Measures the dashboard calls the subsystems make every loop, through
+ * SmartDashboard directly and through the logger's cached publishers, with
+ * a value that changes every call and one that doesn't.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DashboardBenchmark {
+
+  private final Pose2d unchangedPose = new Pose2d(1.5, 4.2, Rotation2d.fromDegrees(90));
+  private double changingValue = 0;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    BenchmarkSupport.initializeHal();
+  }
+
+  @Benchmark
+  public boolean smartDashboardNumber() {
+    return SmartDashboard.putNumber("Benchmark SmartDashboard Number", changingValue++);
+  }
+
+  @Benchmark
+  public boolean loggerNumber() {
+    return SmartDashboardLogger.infoNumber("Benchmark Logger Number", changingValue++);
+  }
+
+  @Benchmark
+  public boolean loggerUnchangedNumber() {
+    return SmartDashboardLogger.infoNumber("Benchmark Logger Unchanged Number", 0.125);
+  }
+
+  @Benchmark
+  public boolean smartDashboardPoseString() {
+    return SmartDashboard.putString("Benchmark SmartDashboard Pose", unchangedPose.toString());
+  }
+
+  @Benchmark
+  public boolean loggerUnchangedPoseString() {
+    return SmartDashboardLogger.infoString("Benchmark Logger Pose", unchangedPose);
+  }
+}
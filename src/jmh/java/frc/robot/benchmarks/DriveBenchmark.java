@@ -0,0 +1,92 @@
+package frc.robot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.Constants.DriveConstants;
+import frc.robot.subsystems.drive.DriveSubsystemImpl;
+import frc.robot.subsystems.drive.ModuleIOTalonFX;
+import frc.robot.subsystems.drive.SwerveModule;
+
+/**
+ * Measures the swerve output path that runs every loop while driving.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DriveBenchmark {
+
+  // CAN IDs that aren't used by anything on the robot so the simulated devices don't collide
+  private static final int BENCHMARK_DRIVE_MOTOR_ID = 41;
+  private static final int BENCHMARK_TURN_MOTOR_ID = 42;
+  private static final int BENCHMARK_CANCODER_ID = 43;
+
+  private DriveSubsystemImpl driveSubsystem;
+  private SwerveModule swerveModule;
+  private SwerveModuleState[] desiredStates;
+  private int loopIndex = 0;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    BenchmarkSupport.initializeHal();
+    driveSubsystem = DriveSubsystemImpl.createSimulated();
+    // The real module hardware, so the Phoenix calls are part of what's measured
+    swerveModule = new SwerveModule(
+      new ModuleIOTalonFX(
+        BENCHMARK_DRIVE_MOTOR_ID,
+        BENCHMARK_TURN_MOTOR_ID,
+        BENCHMARK_CANCODER_ID,
+        0,
+        false,
+        false
+      ),
+      "Benchmark"
+    );
+
+    // A spread of headings so optimize() takes both the flipped and unflipped branches
+    desiredStates = new SwerveModuleState[16];
+    for (int i = 0; i < desiredStates.length; i++) {
+      desiredStates[i] = new SwerveModuleState(
+        DriveConstants.MAX_SPEED_METERS_PER_SECOND * (i + 1) / desiredStates.length,
+        Rotation2d.fromDegrees(i * 360.0 / desiredStates.length)
+      );
+    }
+  }
+
+  @Benchmark
+  public void driveFieldRelative() {
+    double scale = (loopIndex++ & 15) / 16.0;
+    driveSubsystem.drive(
+      scale * DriveConstants.MAX_SPEED_METERS_PER_SECOND,
+      (1 - scale) * DriveConstants.MAX_SPEED_METERS_PER_SECOND,
+      scale * DriveConstants.MAX_ANGULAR_SPEED_RADIANS_PER_SECOND,
+      true
+    );
+  }
+
+  @Benchmark
+  public void driveRobotRelative() {
+    double scale = (loopIndex++ & 15) / 16.0;
+    driveSubsystem.drive(
+      scale * DriveConstants.MAX_SPEED_METERS_PER_SECOND,
+      (1 - scale) * DriveConstants.MAX_SPEED_METERS_PER_SECOND,
+      scale * DriveConstants.MAX_ANGULAR_SPEED_RADIANS_PER_SECOND,
+      false
+    );
+  }
+
+  @Benchmark
+  public void setDesiredState() {
+    swerveModule.setDesiredState(desiredStates[loopIndex++ & 15]);
+  }
+}
@@ -0,0 +1,85 @@
+package frc.robot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import frc.robot.Constants.ArmConstants;
+import frc.robot.Constants.LimelightConstants;
+import frc.robot.extras.CompiledLinearInterpolator;
+import frc.robot.extras.MultiLinearInterpolator;
+import frc.robot.extras.SingleLinearInterpolator;
+import frc.robot.extras.UniformGridInterpolator;
+import frc.robot.extras.UniformGridInterpolator.Kernel;
+
+/**
+ * Measures the lookup tables used for the vision standard deviations and the arm.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InterpolatorBenchmark {
+
+  private MultiLinearInterpolator oneAprilTagLookupTable;
+  private SingleLinearInterpolator centerOfMassLookupTable;
+  private CompiledLinearInterpolator compiledOneAprilTagLookupTable;
+  private CompiledLinearInterpolator compiledCenterOfMassLookupTable;
+  private UniformGridInterpolator uniformGridCenterOfMassLookupTable;
+  private double[] standardDeviations;
+  private double[] distances;
+  private double[] extensions;
+  private int loopIndex = 0;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    oneAprilTagLookupTable = new MultiLinearInterpolator(LimelightConstants.ONE_APRIL_TAG_LOOKUP_TABLE);
+    centerOfMassLookupTable = new SingleLinearInterpolator(ArmConstants.CENTER_OF_MASS_LOOKUP_TABLE);
+    compiledOneAprilTagLookupTable = new CompiledLinearInterpolator(LimelightConstants.ONE_APRIL_TAG_LOOKUP_TABLE);
+    compiledCenterOfMassLookupTable = new CompiledLinearInterpolator(ArmConstants.CENTER_OF_MASS_LOOKUP_TABLE);
+    uniformGridCenterOfMassLookupTable = new UniformGridInterpolator(
+      ArmConstants.CENTER_OF_MASS_LOOKUP_TABLE, ArmConstants.CENTER_OF_MASS_GRID_POINTS, Kernel.MONOTONE_CUBIC
+    );
+    standardDeviations = new double[compiledOneAprilTagLookupTable.getOutputCount()];
+
+    // Sweeps slightly past both ends of each table so the clamping branches are measured too
+    distances = new double[64];
+    extensions = new double[64];
+    for (int i = 0; i < distances.length; i++) {
+      distances[i] = -0.5 + 7.0 * i / distances.length;
+      extensions[i] = -0.1 + 1.5 * i / extensions.length;
+    }
+  }
+
+  @Benchmark
+  public double[] multiLinearLookup() {
+    return oneAprilTagLookupTable.getLookupValue(distances[loopIndex++ & 63]);
+  }
+
+  @Benchmark
+  public double singleLinearLookup() {
+    return centerOfMassLookupTable.getLookupValue(extensions[loopIndex++ & 63]);
+  }
+
+  @Benchmark
+  public double[] compiledMultiLinearLookup() {
+    compiledOneAprilTagLookupTable.getLookupValues(distances[loopIndex++ & 63], standardDeviations);
+    return standardDeviations;
+  }
+
+  @Benchmark
+  public double compiledSingleLinearLookup() {
+    return compiledCenterOfMassLookupTable.getLookupValue(extensions[loopIndex++ & 63]);
+  }
+
+  @Benchmark
+  public double uniformGridSingleLookup() {
+    return uniformGridCenterOfMassLookupTable.getLookupValue(extensions[loopIndex++ & 63]);
+  }
+}
@@ -0,0 +1,70 @@
+package frc.robot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.robot.Constants.LimelightConstants;
+import frc.robot.extras.LimelightHelpers;
+import frc.robot.extras.LimelightResultsParser;
+import frc.robot.extras.LimelightHelpers.LimelightResults;
+
+/**
+ * Measures reading and parsing the Limelight JSON results dump. Recorded dumps are
+ * published to the local NetworkTables instance in place of the camera.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LimelightBenchmark {
+
+  @Param({"two-tags.json", "no-tags.json"})
+  public String dumpName;
+
+  private String json;
+  // The data binding parse that LimelightHelpers used before the streaming parser, kept here for comparison
+  private ObjectMapper dataBindingMapper;
+  private LimelightResultsParser streamingParser;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    BenchmarkSupport.initializeHal();
+    json = BenchmarkSupport.readLimelightDump(dumpName);
+    NetworkTableInstance.getDefault()
+      .getTable(LimelightConstants.FRONT_LIMELIGHT_NAME)
+      .getEntry("json")
+      .setString(json);
+
+    dataBindingMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    streamingParser = new LimelightResultsParser();
+  }
+
+  @Benchmark
+  public LimelightResults getLatestResults() {
+    return LimelightHelpers.getLatestResults(LimelightConstants.FRONT_LIMELIGHT_NAME);
+  }
+
+  @Benchmark
+  public LimelightResults parseDataBinding() throws JsonProcessingException {
+    return dataBindingMapper.readValue(json, LimelightResults.class);
+  }
+
+  @Benchmark
+  public LimelightResults parseStreamingPooled() {
+    streamingParser.parse(json);
+    return streamingParser.getResults();
+  }
+}
@@ -0,0 +1,119 @@
+package frc.robot.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import com.pathplanner.lib.PathPoint;
+
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.Constants.DriveConstants;
+import frc.robot.Constants.TrajectoryConstants;
+import frc.robot.commands.autonomous.RealTimePPSwerveControllerCommand;
+import frc.robot.extras.TrajectorySampler;
+import frc.robot.subsystems.drive.DriveSubsystemImpl;
+
+/**
+ * Measures one execute() of the real time path following command on an
+ * auto place length trajectory. The pose supplier and module state consumer
+ * are stand-ins so only the command itself is measured. Sampling the
+ * trajectory is also measured on its own, stepping 20ms each call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PathFollowingBenchmark {
+
+  private RealTimePPSwerveControllerCommand pathFollowingCommand;
+  private Pose2d currentPose;
+  private SwerveModuleState[] outputModuleStates;
+  private PathPlannerTrajectory trajectory;
+  private TrajectorySampler trajectorySampler;
+  private double sampleTimeSeconds = 0;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    BenchmarkSupport.initializeHal();
+    DriveSubsystemImpl driveSubsystem = DriveSubsystemImpl.createSimulated();
+
+    trajectory = PathPlanner.generatePath(
+      new PathConstraints(TrajectoryConstants.MAX_SPEED, TrajectoryConstants.MAX_ACCELERATION),
+      List.of(
+        new PathPoint(new Translation2d(7.5, 1.5), TrajectoryConstants.BLUE_HEADING, TrajectoryConstants.BLUE_END_ROTATION),
+        new PathPoint(new Translation2d(TrajectoryConstants.BLUE_OUTER_WAYPOINT_X, TrajectoryConstants.LOWER_WAYPOINT_Y), TrajectoryConstants.BLUE_HEADING, TrajectoryConstants.BLUE_END_ROTATION),
+        new PathPoint(new Translation2d(TrajectoryConstants.BLUE_INNER_WAYPOINT_X, TrajectoryConstants.LOWER_WAYPOINT_Y), TrajectoryConstants.BLUE_HEADING, TrajectoryConstants.BLUE_END_ROTATION),
+        new PathPoint(new Translation2d(TrajectoryConstants.BLUE_NODE_X_POSITION, TrajectoryConstants.BLUE_NODE_Y_POSITIONS[7]), TrajectoryConstants.BLUE_HEADING, TrajectoryConstants.BLUE_END_ROTATION)
+      )
+    );
+    currentPose = trajectory.getInitialHolonomicPose();
+    trajectorySampler = new TrajectorySampler(trajectory);
+
+    PIDController thetaController = new PIDController(TrajectoryConstants.REAL_TIME_THETA_CONTROLLER_P, 0, 0);
+    thetaController.enableContinuousInput(-Math.PI, Math.PI);
+
+    pathFollowingCommand = new RealTimePPSwerveControllerCommand(
+      trajectory,
+      () -> currentPose,
+      DriveConstants.DRIVE_KINEMATICS,
+      new PIDController(TrajectoryConstants.REAL_TIME_X_CONTROLLER_P, 0, 0),
+      new PIDController(TrajectoryConstants.REAL_TIME_Y_CONTROLLER_P, 0, 0),
+      thetaController,
+      moduleStates -> outputModuleStates = moduleStates,
+      false,
+      () -> false,
+      trajectory.getEndState().poseMeters,
+      driveSubsystem
+    );
+  }
+
+  @Setup(Level.Iteration)
+  public void startPath() {
+    // Restarts the path so each iteration samples along the whole trajectory, not just its end state
+    pathFollowingCommand.initialize();
+  }
+
+  @TearDown(Level.Iteration)
+  public void stopPath() {
+    pathFollowingCommand.end(true);
+  }
+
+  @Benchmark
+  public SwerveModuleState[] execute() {
+    pathFollowingCommand.execute();
+    return outputModuleStates;
+  }
+
+  @Benchmark
+  public PathPlannerState trajectorySample() {
+    return (PathPlannerState) trajectory.sample(nextSampleTime());
+  }
+
+  @Benchmark
+  public PathPlannerState samplerSample() {
+    return trajectorySampler.sample(nextSampleTime());
+  }
+
+  private double nextSampleTime() {
+    sampleTimeSeconds += 0.02;
+    if (sampleTimeSeconds > trajectory.getTotalTimeSeconds()) {
+      sampleTimeSeconds = 0;
+    }
+    return sampleTimeSeconds;
+  }
+}
@@ -28,6 +28,15 @@ public final class Constants {
     public static final int TIMEOUT_MS = 30;
   }
 
+  public static final class DiagnosticConstants {
+    // Counts the bytes each subsystem and command allocates every loop, see LoopProfiler
+    public static final boolean TRACK_ALLOCATIONS = false;
+    // Samples the main thread's stack when a loop runs long, see LoopOverrunSampler
+    public static final boolean SAMPLE_LOOP_OVERRUNS = false;
+    public static final long LOOP_OVERRUN_THRESHOLD_MS = 20;
+    public static final long STACK_SAMPLE_INTERVAL_MS = 2;
+  }
+
   public static final class Conversions {
     public static final double DEGREES_TO_CANCODER_UNITS = HardwareConstants.CANCODER_RESOLUTION / 360.0;
     public static final double DEGREES_TO_FALCON_UNITS = HardwareConstants.FALCON_ENCODER_RESOLUTION / 360.0;
@@ -133,12 +142,13 @@ public final class Constants {
     public static final double TRACK_WIDTH = Units.inchesToMeters(22.25);
     // Distance between front and back wheels on robot
     public static final double WHEEL_BASE = Units.inchesToMeters(28.5);
-    public static final SwerveDriveKinematics DRIVE_KINEMATICS = new SwerveDriveKinematics(
+    public static final Translation2d[] MODULE_TRANSLATIONS = {
       new Translation2d(WHEEL_BASE / 2, TRACK_WIDTH / 2), // Front Left
       new Translation2d(WHEEL_BASE / 2, -TRACK_WIDTH / 2), // Front Right
       new Translation2d(-WHEEL_BASE / 2, TRACK_WIDTH / 2), // Rear Left
       new Translation2d(-WHEEL_BASE / 2, -TRACK_WIDTH / 2) // Rear Right
-    );
+    };
+    public static final SwerveDriveKinematics DRIVE_KINEMATICS = new SwerveDriveKinematics(MODULE_TRANSLATIONS);
 
     public static final int FRONT_LEFT_DRIVE_MOTOR_ID = 1;
     public static final int FRONT_RIGHT_DRIVE_MOTOR_ID = 2;
@@ -177,6 +187,11 @@ public final class Constants {
 
     public static final double MAX_SPEED_METERS_PER_SECOND = 4.5;
 
+    // How often the odometry thread samples the modules and gyro
+    public static final double ODOMETRY_FREQUENCY_HZ = 250;
+    public static final int ODOMETRY_STATUS_FRAME_PERIOD_MS = (int) (1000 / ODOMETRY_FREQUENCY_HZ);
+    public static final byte GYRO_UPDATE_RATE_HZ = (byte) 200;
+
     public static final double FACEFORWARD_P = 0.015;
 
     // TODO: Remove this if we don't end up doing auto balance
@@ -234,6 +249,8 @@ public final class Constants {
     public static final double DRIVE_S = 0.29155 / 12.0;
     public static final double DRIVE_V = 2.3621 / 12.0;
     public static final double DRIVE_A = 0.72606 / 12.0;
+
+    public static final double DRIVE_CURRENT_LIMIT_AMPS = 60;
   }
 
   public static final class ArmConstants {
@@ -318,6 +335,8 @@ public final class Constants {
       {1.05, Units.inchesToMeters(20)},
       {1.25, Units.inchesToMeters(34)},
     };
+    // The COM table is resampled to this many points so the feedforward lookup doesn't have to search
+    public static final int CENTER_OF_MASS_GRID_POINTS = 128;
   }
 
   public static final class ClawConstants {
@@ -357,6 +376,10 @@ public final class Constants {
 
   public static final class LimelightConstants {
     public static final int FRAMES_BEFORE_ADDING_VISION_MEASUREMENT = 5;
+    // How long a limelight can go without publishing a frame before it's treated as not seeing a tag
+    public static final double FRAME_TIMEOUT_SECONDS = 0.5;
+    // How often the JSON results are parsed for a transmit delay sample when the botpose entries have everything else
+    public static final double JSON_SAMPLE_PERIOD_SECONDS = 1;
   
     public static final String FRONT_LIMELIGHT_NAME = "limelight-front";
     public static final String BACK_LIMELIGHT_NAME = "limelight-back";
@@ -494,12 +517,17 @@ public final class Constants {
   public static final class TrajectoryConstants {
     public static final double MAX_SPEED = 4;
     public static final double MAX_ACCELERATION = 3;
+    // The constraints the deployed PathPlanner paths are generated with, these are baked into the compiled trajectories
+    public static final double DEPLOYED_PATH_MAX_VELOCITY = 3;
+    public static final double DEPLOYED_PATH_MAX_ACCELERATION = 1.5;
     public static final double DEPLOYED_X_CONTROLLER_P = .35;
     public static final double DEPLOYED_Y_CONTROLLER_P = .35;
     public static final double DEPLOYED_THETA_CONTROLLER_P = .8;
     public static final double REAL_TIME_X_CONTROLLER_P = 2;
     public static final double REAL_TIME_Y_CONTROLLER_P = 2;
     public static final double REAL_TIME_THETA_CONTROLLER_P = 3;
+    // How often the target and actual poses are sent to the PathPlanner app while following a path
+    public static final double PATH_FOLLOWING_TELEMETRY_PERIOD_SECONDS = 0.1;
     public static final double THETA_PROFILED_CONTROLLER_P = 1;
     public static final double MAX_ANGULAR_SPEED_RADIANS_PER_SECOND = Math.PI ;
     public static final double MAX_ANGULAR_SPEED_RADIANS_PER_SECOND_SQUARED = 2 * Math.PI;
@@ -536,6 +564,8 @@ public final class Constants {
     public static final double RED_INNER_WAYPOINT_X = 14.26;
     public static final double UPPER_WAYPOINT_Y = 4.75;
     public static final double LOWER_WAYPOINT_Y = 0.75;
+    // How fast the robot is going when it enters the corridor, where the cached part of an AutoPlace trajectory starts
+    public static final double AUTO_PLACE_CORRIDOR_SPEED = 2;
     public static final Rotation2d BLUE_END_ROTATION = Rotation2d.fromDegrees(0);
     public static final Rotation2d BLUE_HEADING = Rotation2d.fromDegrees(180);
     public static final Rotation2d RED_END_ROTATION = Rotation2d.fromDegrees(180);
@@ -10,6 +10,11 @@ package frc.robot;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Constants.DiagnosticConstants;
+import frc.robot.commands.autonomous.AutoPlaceTrajectoryCache;
+import frc.robot.extras.LoopOverrunSampler;
+import frc.robot.extras.LoopProfiler;
+import frc.robot.extras.OnRobotLogger;
 
 
 /**
@@ -29,14 +34,49 @@ public class Robot extends TimedRobot {
    */
   @Override
   public void robotInit() {
+    // Starts the on-robot log first so everything after this can be logged
+    OnRobotLogger.start();
+    logCommandLifecycles();
+    if (DiagnosticConstants.TRACK_ALLOCATIONS) {
+      LoopProfiler.enableAllocationTracking();
+    }
+    if (DiagnosticConstants.SAMPLE_LOOP_OVERRUNS) {
+      LoopOverrunSampler.start();
+    }
     // Instantiate our RobotContainer.  This will perform all our button bindings, and put our
     // autonomous chooser on the dashboard.
     m_robotContainer = new RobotContainer();
+    LoopProfiler.profileCommands();
+    // Generates the parts of the auto-align trajectories that never change while the robot is disabled
+    AutoPlaceTrajectoryCache.generateTails();
     // m_robotContainer.armSubsystem.lockExtensionSolenoid();
 //    uncomment the line below if there is a USB camera plugged into the RoboRIO
 //    CameraServer.startAutomaticCapture();
   }
 
+  /**
+   * Logs if each command is running, and the name of every command that gets interrupted.
+   */
+  private void logCommandLifecycles() {
+    CommandScheduler commandScheduler = CommandScheduler.getInstance();
+    commandScheduler.onCommandInitialize(command -> OnRobotLogger.logBoolean("Commands/" + command.getName(), true));
+    commandScheduler.onCommandFinish(command -> OnRobotLogger.logBoolean("Commands/" + command.getName(), false));
+    commandScheduler.onCommandInterrupt(command -> {
+      OnRobotLogger.logBoolean("Commands/" + command.getName(), false);
+      OnRobotLogger.logString("Commands/Interrupted", command.getName());
+    });
+  }
+
+  /**
+   * Marks the start and end of every loop, including the mode init functions, for LoopOverrunSampler.
+   */
+  @Override
+  protected void loopFunc() {
+    LoopOverrunSampler.markLoopStart();
+    super.loopFunc();
+    LoopOverrunSampler.markLoopEnd();
+  }
+
   /**
    * This function is called every robot packet, no matter the mode. Use this for items like
    * diagnostics that you want ran during disabled, autonomous, teleoperated and test.
@@ -50,7 +90,9 @@ public class Robot extends TimedRobot {
     // commands, running already-scheduled commands, removing finished or interrupted commands,
     // and running subsystem periodic() methods.  This must be called from the robot's periodic
     // block in order for anything in the Command-based framework to work.
-    CommandScheduler.getInstance().run();
+    // LoopProfiler times the run and everything in it
+    LoopProfiler.runScheduler();
+    LoopProfiler.publishPeriodically();
   }
 
   /**
@@ -6,6 +6,7 @@ import java.util.function.DoubleSupplier;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Joystick;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
@@ -14,6 +15,7 @@ import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 import edu.wpi.first.wpilibj2.command.button.JoystickButton;
 import frc.robot.Constants.ArmConstants;
+import frc.robot.Constants.DriveConstants;
 import frc.robot.Constants.JoystickConstants;
 import frc.robot.Constants.LEDConstants.LEDProcess;
 import edu.wpi.first.wpilibj2.command.button.POVButton;
@@ -37,12 +39,18 @@ import frc.robot.commands.arm.PlaceGamePiece;
 import frc.robot.commands.drive.DriveCommand;
 import frc.robot.extras.NodeAndModeRegistry;
 import frc.robot.extras.SmarterDashboardRegistry;
+import frc.robot.subsystems.arm.ArmIOSim;
+import frc.robot.subsystems.arm.ArmIOTalonFX;
 import frc.robot.subsystems.arm.ArmSubsystem;
 import frc.robot.subsystems.arm.ArmSubsystemImpl;
+import frc.robot.subsystems.claw.ClawIOSim;
+import frc.robot.subsystems.claw.ClawIOTalonFX;
 import frc.robot.subsystems.claw.ClawSubsystem;
 import frc.robot.subsystems.claw.ClawSubsystemImpl;
 import frc.robot.subsystems.drive.DriveSubsystem;
 import frc.robot.subsystems.drive.DriveSubsystemImpl;
+import frc.robot.subsystems.drive.GyroIONavX;
+import frc.robot.subsystems.drive.ModuleIOTalonFX;
 import frc.robot.subsystems.leds.LEDSubsystem;
 import frc.robot.subsystems.leds.LEDSubsystemImplSpark;
 import frc.robot.subsystems.vision.VisionSubsystem;
@@ -76,10 +84,50 @@ public class RobotContainer {
     buttonBoard1 = new Joystick(JoystickConstants.BUTTON_BOARD_1_ID);
     buttonBoard2 = new Joystick(JoystickConstants.BUTTON_BOARD_2_ID);
 
-    driveSubsystem = new DriveSubsystemImpl();
+    if (RobotBase.isReal()) {
+      driveSubsystem = new DriveSubsystemImpl(
+        new ModuleIOTalonFX(
+          DriveConstants.FRONT_LEFT_DRIVE_MOTOR_ID,
+          DriveConstants.FRONT_LEFT_TURN_MOTOR_ID,
+          DriveConstants.FRONT_LEFT_CANCODER_ID,
+          DriveConstants.FRONT_LEFT_ZERO_ANGLE,
+          DriveConstants.FRONT_LEFT_CANCODER_REVERSED,
+          DriveConstants.FRONT_LEFT_DRIVE_ENCODER_REVERSED
+        ),
+        new ModuleIOTalonFX(
+          DriveConstants.FRONT_RIGHT_DRIVE_MOTOR_ID,
+          DriveConstants.FRONT_RIGHT_TURN_MOTOR_ID,
+          DriveConstants.FRONT_RIGHT_CANCODER_ID,
+          DriveConstants.FRONT_RIGHT_ZERO_ANGLE,
+          DriveConstants.FRONT_RIGHT_CANCODER_REVERSED,
+          DriveConstants.FRONT_RIGHT_DRIVE_ENCODER_REVERSED
+        ),
+        new ModuleIOTalonFX(
+          DriveConstants.REAR_LEFT_DRIVE_MOTOR_ID,
+          DriveConstants.REAR_LEFT_TURN_MOTOR_ID,
+          DriveConstants.REAR_LEFT_CANCODER_ID,
+          DriveConstants.REAR_LEFT_ZERO_ANGLE,
+          DriveConstants.REAR_LEFT_CANCODER_REVERSED,
+          DriveConstants.REAR_LEFT_DRIVE_ENCODER_REVERSED
+        ),
+        new ModuleIOTalonFX(
+          DriveConstants.REAR_RIGHT_DRIVE_MOTOR_ID,
+          DriveConstants.REAR_RIGHT_TURN_MOTOR_ID,
+          DriveConstants.REAR_RIGHT_CANCODER_ID,
+          DriveConstants.REAR_RIGHT_ZERO_ANGLE,
+          DriveConstants.REAR_RIGHT_CANCODER_REVERSED,
+          DriveConstants.REAR_RIGHT_DRIVE_ENCODER_REVERSED
+        ),
+        new GyroIONavX()
+      );
+      armSubsystem = new ArmSubsystemImpl(new ArmIOTalonFX());
+      clawSubsystem = new ClawSubsystemImpl(new ClawIOTalonFX());
+    } else {
+      driveSubsystem = DriveSubsystemImpl.createSimulated();
+      armSubsystem = new ArmSubsystemImpl(new ArmIOSim());
+      clawSubsystem = new ClawSubsystemImpl(new ClawIOSim());
+    }
     visionSubsystem = new VisionSubsystemImpl();
-    armSubsystem = new ArmSubsystemImpl();
-    clawSubsystem = new ClawSubsystemImpl();
     leds = new LEDSubsystemImplSpark();
 
     autoChooser = new SendableChooser<Command>();
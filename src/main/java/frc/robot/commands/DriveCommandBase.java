@@ -1,26 +1,22 @@
 package frc.robot.commands;
 
-import edu.wpi.first.math.geometry.Pose2d;
-import edu.wpi.first.wpilibj.Timer;
+import java.util.List;
+
 import edu.wpi.first.wpilibj2.command.CommandBase;
-import frc.robot.Constants.LimelightConstants;
-import frc.robot.extras.MultiLinearInterpolator;
 import frc.robot.subsystems.drive.DriveSubsystem;
+import frc.robot.subsystems.drive.PoseEstimatorLog;
+import frc.robot.subsystems.vision.VisionMeasurement;
 import frc.robot.subsystems.vision.VisionSubsystem;
 
 public abstract class DriveCommandBase extends CommandBase {
 
-  private final MultiLinearInterpolator oneAprilTagLookupTable = 
-    new MultiLinearInterpolator(LimelightConstants.ONE_APRIL_TAG_LOOKUP_TABLE);
-  private final MultiLinearInterpolator twoAprilTagLookupTable = 
-    new MultiLinearInterpolator(LimelightConstants.TWO_APRIL_TAG_LOOKUP_TABLE);
+  private final VisionMeasurementGate visionMeasurementGate = new VisionMeasurementGate();
+  // Reused for every vision measurement's {x, y, r} standard deviations
+  private final double[] standardDeviations = new double[3];
 
   private final DriveSubsystem driveSubsystem;
   private final VisionSubsystem visionSubsystem;
 
-  private double lastTimeStampSeconds = 0;
-  private int ticksAfterSeeing = 0;
-
   /**
    * An abstract class that handles pose estimation while driving.
    * @param driveSubsystem The subsystem for the swerve drive
@@ -33,36 +29,34 @@ public abstract class DriveCommandBase extends CommandBase {
 
   @Override
   public void execute() {
-    // Updates the pose estimator using the swerve modules
+    // Updates the pose estimator using the swerve modules. This is the only drain before the vision
+    // measurements, so the log has the odometry samples before them like the estimator does
     driveSubsystem.addPoseEstimatorSwerveMeasurement();
 
-    // Updates the robot's odometry with april tags
-    double currentTimeStampSeconds = lastTimeStampSeconds;
-
-    if (visionSubsystem.canSeeAprilTags()) {
-      ticksAfterSeeing++;
-      currentTimeStampSeconds = visionSubsystem.getTimeStampSeconds();
-
-      double distanceFromClosestAprilTag = visionSubsystem.getDistanceFromClosestAprilTag();
-      // Sets the pose estimator confidence in vision based off of number of april tags and distance
-      if (visionSubsystem.getNumberOfAprilTags() == 1) {
-        double[] standardDeviations = oneAprilTagLookupTable.getLookupValue(distanceFromClosestAprilTag);
-        driveSubsystem.setPoseEstimatorVisionConfidence(standardDeviations[0], standardDeviations[1], standardDeviations[2]);
-      } else if (visionSubsystem.getNumberOfAprilTags() > 1) {
-        double[] standardDeviations = twoAprilTagLookupTable.getLookupValue(distanceFromClosestAprilTag);
-        driveSubsystem.setPoseEstimatorVisionConfidence(standardDeviations[0], standardDeviations[1], standardDeviations[2]);
-      }
+    // Updates the robot's odometry with april tags from every limelight, the inputs are logged so they can be replayed
+    boolean canSeeAprilTags = visionSubsystem.canSeeAprilTags();
+    List<VisionMeasurement> visionMeasurements = visionSubsystem.getNewVisionMeasurements();
+    PoseEstimatorLog.logCanSeeAprilTags(canSeeAprilTags);
+    for (int i = 0; i < visionMeasurements.size(); i++) {
+      PoseEstimatorLog.logVisionMeasurement(visionMeasurements.get(i));
+    }
 
-      // Only updates the pose estimator if the limelight pose is new and reliable
-      if (currentTimeStampSeconds > lastTimeStampSeconds && ticksAfterSeeing > LimelightConstants.FRAMES_BEFORE_ADDING_VISION_MEASUREMENT) {
-        Pose2d limelightVisionMeasurement = visionSubsystem.getPoseFromAprilTags();
-        driveSubsystem.addPoseEstimatorVisionMeasurement(limelightVisionMeasurement, Timer.getFPGATimestamp() - visionSubsystem.getLatencySeconds());
+    // Only updates the pose estimator once the limelight poses are reliable
+    if (visionMeasurementGate.update(canSeeAprilTags)) {
+      for (int i = 0; i < visionMeasurements.size(); i++) {
+        addVisionMeasurement(visionMeasurements.get(i));
       }
-    } else {
-      ticksAfterSeeing = 0;
     }
+  }
 
-    lastTimeStampSeconds = currentTimeStampSeconds;
+  /**
+   * Adds a vision measurement to the pose estimator, setting the confidence
+   * in it based off of its number of april tags and distance.
+   */
+  private void addVisionMeasurement(VisionMeasurement visionMeasurement) {
+    visionMeasurementGate.getStandardDeviations(visionMeasurement, standardDeviations);
+    driveSubsystem.setPoseEstimatorVisionConfidence(standardDeviations[0], standardDeviations[1], standardDeviations[2]);
+    driveSubsystem.addPoseEstimatorVisionMeasurement(visionMeasurement.getPose(), visionMeasurement.getCaptureTimestampSeconds());
   }
 
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package frc.robot.commands;
+
+import frc.robot.Constants.LimelightConstants;
+import frc.robot.extras.CompiledLinearInterpolator;
+import frc.robot.subsystems.vision.VisionMeasurement;
+
+/**
+ * Decides when vision measurements go into the pose estimator and how much to trust them.
+ * This doesn't touch any subsystems, so the pose estimator replay runs the same logic as the robot.
+ */
+public class VisionMeasurementGate {
+
+  private final CompiledLinearInterpolator oneAprilTagLookupTable =
+    new CompiledLinearInterpolator(LimelightConstants.ONE_APRIL_TAG_LOOKUP_TABLE);
+  private final CompiledLinearInterpolator twoAprilTagLookupTable =
+    new CompiledLinearInterpolator(LimelightConstants.TWO_APRIL_TAG_LOOKUP_TABLE);
+
+  private int ticksAfterSeeing = 0;
+
+  /**
+   * Updates the gate once per loop.
+   * @param canSeeAprilTags If any limelight can see an april tag this loop.
+   * @return If this loop's vision measurements should be added, which is only once the limelight
+   * poses are reliable.
+   */
+  public boolean update(boolean canSeeAprilTags) {
+    if (canSeeAprilTags) {
+      ticksAfterSeeing++;
+    } else {
+      ticksAfterSeeing = 0;
+    }
+    return ticksAfterSeeing > LimelightConstants.FRAMES_BEFORE_ADDING_VISION_MEASUREMENT;
+  }
+
+  /**
+   * Gets the confidence in a vision measurement based off of its number of april tags and distance.
+   * @param standardDeviations The array to write the {x, y, r} standard deviations into.
+   */
+  public void getStandardDeviations(VisionMeasurement visionMeasurement, double[] standardDeviations) {
+    if (visionMeasurement.getNumberOfAprilTags() > 1) {
+      twoAprilTagLookupTable.getLookupValues(visionMeasurement.getDistanceFromClosestAprilTag(), standardDeviations);
+    } else {
+      oneAprilTagLookupTable.getLookupValues(visionMeasurement.getDistanceFromClosestAprilTag(), standardDeviations);
+    }
+  }
+}
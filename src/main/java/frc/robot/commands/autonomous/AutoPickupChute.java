@@ -12,8 +12,8 @@ import frc.robot.Constants.DriveConstants;
 import frc.robot.Constants.TrajectoryConstants;
 import frc.robot.Constants.LEDConstants.LEDProcess;
 import frc.robot.commands.DriveCommandBase;
+import frc.robot.extras.AsyncPathGenerator;
 import frc.robot.extras.NodeAndModeRegistry;
-import frc.robot.extras.SmartDashboardLogger;
 import frc.robot.extras.SmarterDashboardRegistry;
 import frc.robot.subsystems.claw.ClawSubsystem;
 import frc.robot.subsystems.drive.DriveSubsystem;
@@ -21,9 +21,9 @@ import frc.robot.subsystems.leds.LEDSubsystem;
 import frc.robot.subsystems.vision.VisionSubsystem;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BooleanSupplier;
 import com.pathplanner.lib.PathConstraints;
-import com.pathplanner.lib.PathPlanner;
 import com.pathplanner.lib.PathPlannerTrajectory;
 import com.pathplanner.lib.PathPoint;
 
@@ -87,23 +87,25 @@ public class AutoPickupChute extends DriveCommandBase {
     PIDController yController = new PIDController(TrajectoryConstants.REAL_TIME_Y_CONTROLLER_P, 0, 0);
     PIDController thetaController = new PIDController(TrajectoryConstants.REAL_TIME_THETA_CONTROLLER_P, 0, 0);
 
-    // This should be fine, but is here just in case so the robot doesn't crash during a match
-    try {
-      // Makes a trajectory that factors in holonomic rotation
-      PathPlannerTrajectory trajectoryToFollow = PathPlanner.generatePath(
-        new PathConstraints(TrajectoryConstants.MAX_SPEED, TrajectoryConstants.MAX_ACCELERATION),
-        // Pathpoints go in: position, heading (direction of travel)
-        pathPoints
-      );                                               
+    // Makes it so wheels don't have to turn more than 90 degrees
+    thetaController.enableContinuousInput(-Math.PI, Math.PI);
+
+    // Makes a trajectory that factors in holonomic rotation on a background thread so the loop doesn't stall
+    CompletableFuture<PathPlannerTrajectory> trajectoryFuture = AsyncPathGenerator.generatePath(
+      new PathConstraints(TrajectoryConstants.MAX_SPEED, TrajectoryConstants.MAX_ACCELERATION),
+      // Pathpoints go in: position, heading (direction of travel)
+      pathPoints
+    );
 
     // IMPORTANT: Make sure your driveSubsystem has the methods getPose and setModuleStates
 
     /* EDIT CODE ABOVE HERE (ONLY TOUCH THE REST OF THE CODE IF YOU KNOW WHAT YOU'RE DOING) */
 
-      // Makes it so wheels don't have to turn more than 90 degrees
-      thetaController.enableContinuousInput(-Math.PI, Math.PI);
-
-      new RealTimePPSwerveControllerCommand(
+    // Holds position until the trajectory is ready, then follows it
+    new FollowGeneratedTrajectory(
+      driveSubsystem,
+      trajectoryFuture,
+      trajectoryToFollow -> new RealTimePPSwerveControllerCommand(
         trajectoryToFollow,
         driveSubsystem::getPose, // Functional interface to feed supplier
         DriveConstants.DRIVE_KINEMATICS,
@@ -115,10 +117,8 @@ public class AutoPickupChute extends DriveCommandBase {
         isFinished,
         endPose,
         driveSubsystem
-      ).schedule();
-    } catch(Exception e) {
-      SmartDashboardLogger.errorString("Trajectory Error Message", e.getLocalizedMessage());
-    }
+      )
+    ).schedule();
     SmarterDashboardRegistry.updateIsFinished(false);
   }
 
@@ -12,8 +12,10 @@ import frc.robot.Constants.DriveConstants;
 import frc.robot.Constants.TrajectoryConstants;
 import frc.robot.Constants.LEDConstants.LEDProcess;
 import frc.robot.commands.DriveCommandBase;
+import frc.robot.commands.autonomous.AutoPlaceTrajectoryCache.Corridor;
+import frc.robot.commands.autonomous.AutoPlaceTrajectoryCache.CorridorEntry;
+import frc.robot.extras.AsyncPathGenerator;
 import frc.robot.extras.NodeAndModeRegistry;
-import frc.robot.extras.SmartDashboardLogger;
 import frc.robot.extras.SmarterDashboardRegistry;
 import frc.robot.subsystems.claw.ClawSubsystem;
 import frc.robot.subsystems.drive.DriveSubsystem;
@@ -21,9 +23,9 @@ import frc.robot.subsystems.leds.LEDSubsystem;
 import frc.robot.subsystems.vision.VisionSubsystem;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BooleanSupplier;
 import com.pathplanner.lib.PathConstraints;
-import com.pathplanner.lib.PathPlanner;
 import com.pathplanner.lib.PathPlannerTrajectory;
 import com.pathplanner.lib.PathPoint;
 
@@ -55,85 +57,80 @@ public class AutoPlace extends DriveCommandBase {
 
     leds.setProcess(LEDProcess.LINE_UP);
 
+    Pose2d currentPose = driveSubsystem.getPose();
+    Alliance alliance = DriverStation.getAlliance() == Alliance.Blue ? Alliance.Blue : Alliance.Red;
+    boolean isBlueAlliance = alliance == Alliance.Blue;
+    int nodeIndex = (NodeAndModeRegistry.getSelectedNode() - 1) % 9; // NodeID starts at  1
+    Rotation2d trajectoryHeading = isBlueAlliance ? TrajectoryConstants.BLUE_HEADING : TrajectoryConstants.RED_HEADING;
+
+    // The end pos changes depending on alliance
+    double endX = isBlueAlliance ? TrajectoryConstants.BLUE_NODE_X_POSITION : TrajectoryConstants.RED_NODE_X_POSITION;
+    double endY = isBlueAlliance 
+      ? TrajectoryConstants.BLUE_NODE_Y_POSITIONS[nodeIndex] : TrajectoryConstants.RED_NODE_Y_POSITIONS[nodeIndex];
+    Rotation2d endRotation = isBlueAlliance ? TrajectoryConstants.BLUE_END_ROTATION : TrajectoryConstants.RED_END_ROTATION;
+    endPose = new Pose2d(endX, endY, endRotation);
+
+    // Goes through a corridor next to the charging station so the robot doesn't hit it
+    Corridor corridor = currentPose.getY() - TrajectoryConstants.LOWER_WAYPOINT_Y > (TrajectoryConstants.UPPER_WAYPOINT_Y - TrajectoryConstants.LOWER_WAYPOINT_Y) / 2
+      ? Corridor.UPPER : Corridor.LOWER;
+    boolean isPastOuterWaypoint = isBlueAlliance 
+      ? currentPose.getX() > TrajectoryConstants.BLUE_OUTER_WAYPOINT_X : currentPose.getX() < TrajectoryConstants.RED_OUTER_WAYPOINT_X;
+    boolean isPastInnerWaypoint = isBlueAlliance 
+      ? currentPose.getX() > TrajectoryConstants.BLUE_INNER_WAYPOINT_X : currentPose.getX() < TrajectoryConstants.RED_INNER_WAYPOINT_X;
+    CorridorEntry corridorEntry = null;
+    if (isPastOuterWaypoint) {
+      corridorEntry = CorridorEntry.OUTER;
+    } else if (isPastInnerWaypoint && currentPose.getY() > TrajectoryConstants.LOWER_WAYPOINT_Y && currentPose.getY() < TrajectoryConstants.UPPER_WAYPOINT_Y) {
+      corridorEntry = CorridorEntry.INNER;
+    }
+
     // The start of the trajectory is the robot's current location
-    List<PathPoint> pathPoints = new ArrayList<PathPoint>();
-    Translation2d start = new Translation2d(driveSubsystem.getPose().getX(), driveSubsystem.getPose().getY());
-    Rotation2d startRotation = driveSubsystem.getPose().getRotation();
-    Rotation2d trajectoryHeading = DriverStation.getAlliance() == Alliance.Blue
-      ? TrajectoryConstants.BLUE_HEADING : TrajectoryConstants.RED_HEADING;
-    pathPoints.add(new PathPoint(start, trajectoryHeading, startRotation));
-    double endX;
-    double endY;
-    Rotation2d endRotation;
-
-    // The middle waypoints and end pos change depending on alliance
-    if (DriverStation.getAlliance() == Alliance.Blue) {
-      endX = TrajectoryConstants.BLUE_NODE_X_POSITION;
-      endY = TrajectoryConstants.BLUE_NODE_Y_POSITIONS[(NodeAndModeRegistry.getSelectedNode() - 1) % 9]; // NodeID starts at  1
-      endRotation = TrajectoryConstants.BLUE_END_ROTATION;
-      // Makes waypoints in the trajectory so the robot doesn't hit the charging station
-      if (driveSubsystem.getPose().getX() > TrajectoryConstants.BLUE_OUTER_WAYPOINT_X) {
-        if (driveSubsystem.getPose().getY() - TrajectoryConstants.LOWER_WAYPOINT_Y > (TrajectoryConstants.UPPER_WAYPOINT_Y - TrajectoryConstants.LOWER_WAYPOINT_Y) / 2) {
-          pathPoints.add(new PathPoint(new Translation2d(TrajectoryConstants.BLUE_OUTER_WAYPOINT_X, TrajectoryConstants.UPPER_WAYPOINT_Y), trajectoryHeading, endRotation));
-          pathPoints.add(new PathPoint(new Translation2d(TrajectoryConstants.BLUE_INNER_WAYPOINT_X, TrajectoryConstants.UPPER_WAYPOINT_Y), trajectoryHeading, endRotation));
-        } else {
-          pathPoints.add(new PathPoint(new Translation2d(TrajectoryConstants.BLUE_OUTER_WAYPOINT_X, TrajectoryConstants.LOWER_WAYPOINT_Y), trajectoryHeading, endRotation));
-          pathPoints.add(new PathPoint(new Translation2d(TrajectoryConstants.BLUE_INNER_WAYPOINT_X, TrajectoryConstants.LOWER_WAYPOINT_Y), trajectoryHeading, endRotation));        }
-      } else if (driveSubsystem.getPose().getX() > TrajectoryConstants.BLUE_INNER_WAYPOINT_X && driveSubsystem.getPose().getY() > TrajectoryConstants.UPPER_WAYPOINT_Y && driveSubsystem.getPose().getY() < TrajectoryConstants.LOWER_WAYPOINT_Y) {
-        if (driveSubsystem.getPose().getY() - TrajectoryConstants.LOWER_WAYPOINT_Y > (TrajectoryConstants.UPPER_WAYPOINT_Y - TrajectoryConstants.LOWER_WAYPOINT_Y) / 2) {
-          pathPoints.add(new PathPoint(new Translation2d(TrajectoryConstants.BLUE_INNER_WAYPOINT_X, TrajectoryConstants.UPPER_WAYPOINT_Y), trajectoryHeading, endRotation));
-        } else {
-          pathPoints.add(new PathPoint(new Translation2d(TrajectoryConstants.BLUE_INNER_WAYPOINT_X, TrajectoryConstants.LOWER_WAYPOINT_Y), trajectoryHeading, endRotation));
-        }
-      }
+    PathPoint startPoint = new PathPoint(currentPose.getTranslation(), trajectoryHeading, currentPose.getRotation());
+    PathConstraints pathConstraints = AutoPlaceTrajectoryCache.getPathConstraints();
+    // Too close to the corridor entry, the lead-in couldn't get up to the speed the tail starts at
+    PathPlannerTrajectory cachedTail = 
+      corridorEntry == null || !AutoPlaceTrajectoryCache.canReachCorridorSpeed(currentPose.getTranslation(), alliance, corridor, corridorEntry)
+        ? null : AutoPlaceTrajectoryCache.getTail(alliance, nodeIndex, corridor, corridorEntry);
+
+    // Makes a trajectory that factors in holonomic rotation on a background thread so the loop doesn't stall
+    CompletableFuture<PathPlannerTrajectory> trajectoryFuture;
+    if (cachedTail != null) {
+      // The corridor to the node was made ahead of time, so only the lead-in to the corridor is generated
+      trajectoryFuture = AsyncPathGenerator.generatePath(
+        pathConstraints,
+        List.of(startPoint, AutoPlaceTrajectoryCache.getCorridorEntryPoint(alliance, corridor, corridorEntry))
+      ).thenApply(leadIn -> AutoPlaceTrajectoryCache.stitch(leadIn, cachedTail));
     } else {
-      endX = TrajectoryConstants.RED_NODE_X_POSITION;
-      endY = TrajectoryConstants.RED_NODE_Y_POSITIONS[(NodeAndModeRegistry.getSelectedNode() - 1) % 9];
-      endRotation = TrajectoryConstants.RED_END_ROTATION;
-      if (driveSubsystem.getPose().getX() < TrajectoryConstants.RED_OUTER_WAYPOINT_X) {
-        if (driveSubsystem.getPose().getY() - TrajectoryConstants.LOWER_WAYPOINT_Y > (TrajectoryConstants.UPPER_WAYPOINT_Y - TrajectoryConstants.LOWER_WAYPOINT_Y) / 2) {
-          pathPoints.add(new PathPoint(new Translation2d(TrajectoryConstants.RED_OUTER_WAYPOINT_X, TrajectoryConstants.UPPER_WAYPOINT_Y), trajectoryHeading, endRotation));
-          pathPoints.add(new PathPoint(new Translation2d(TrajectoryConstants.RED_INNER_WAYPOINT_X, TrajectoryConstants.UPPER_WAYPOINT_Y), trajectoryHeading, endRotation));
-        } else {
-          pathPoints.add(new PathPoint(new Translation2d(TrajectoryConstants.RED_OUTER_WAYPOINT_X, TrajectoryConstants.LOWER_WAYPOINT_Y), trajectoryHeading, endRotation));
-          pathPoints.add(new PathPoint(new Translation2d(TrajectoryConstants.RED_INNER_WAYPOINT_X, TrajectoryConstants.LOWER_WAYPOINT_Y), trajectoryHeading, endRotation));
-        }
-      } else if (driveSubsystem.getPose().getX() < TrajectoryConstants.RED_INNER_WAYPOINT_X && driveSubsystem.getPose().getY() > TrajectoryConstants.UPPER_WAYPOINT_Y && driveSubsystem.getPose().getY() < TrajectoryConstants.LOWER_WAYPOINT_Y) {
-        if (driveSubsystem.getPose().getY() - TrajectoryConstants.LOWER_WAYPOINT_Y > (TrajectoryConstants.UPPER_WAYPOINT_Y - TrajectoryConstants.LOWER_WAYPOINT_Y) / 2) {
-          pathPoints.add(new PathPoint(new Translation2d(TrajectoryConstants.RED_INNER_WAYPOINT_X, TrajectoryConstants.UPPER_WAYPOINT_Y), trajectoryHeading, endRotation));
-        } else {
-          pathPoints.add(new PathPoint(new Translation2d(TrajectoryConstants.RED_INNER_WAYPOINT_X, TrajectoryConstants.LOWER_WAYPOINT_Y), trajectoryHeading, endRotation));
-        }
+      // Pathpoints go in: position, heading (direction of travel)
+      List<PathPoint> pathPoints = new ArrayList<PathPoint>();
+      pathPoints.add(startPoint);
+      if (corridorEntry == CorridorEntry.OUTER) {
+        pathPoints.add(new PathPoint(AutoPlaceTrajectoryCache.getCorridorPosition(alliance, corridor, CorridorEntry.OUTER), trajectoryHeading, endRotation));
+      }
+      if (corridorEntry != null) {
+        pathPoints.add(new PathPoint(AutoPlaceTrajectoryCache.getCorridorPosition(alliance, corridor, CorridorEntry.INNER), trajectoryHeading, endRotation));
       }
+      pathPoints.add(new PathPoint(new Translation2d(endX, endY), trajectoryHeading, endRotation));
+      trajectoryFuture = AsyncPathGenerator.generatePath(pathConstraints, pathPoints);
     }
 
-    Translation2d end = new Translation2d(endX, endY);
-    endPose = new Pose2d(endX, endY, endRotation);
-
-    pathPoints.add(new PathPoint(end, trajectoryHeading, endRotation));
-
     // You probably only want to edit the P values
     PIDController xController = new PIDController(TrajectoryConstants.REAL_TIME_X_CONTROLLER_P, 0, 0);
     PIDController yController = new PIDController(TrajectoryConstants.REAL_TIME_Y_CONTROLLER_P, 0, 0);
     PIDController thetaController = new PIDController(TrajectoryConstants.REAL_TIME_THETA_CONTROLLER_P, 0, 0);
 
-    // This should be fine, but is here just in case so the robot doesn't crash during a match
-    try {
-      // Makes a trajectory that factors in holonomic rotation
-      PathPlannerTrajectory trajectoryToFollow = PathPlanner.generatePath(
-        new PathConstraints(TrajectoryConstants.MAX_SPEED, TrajectoryConstants.MAX_ACCELERATION),
-        // Pathpoints go in: position, heading (direction of travel)
-        pathPoints
-      );                                               
+    // Makes it so wheels don't have to turn more than 90 degrees
+    thetaController.enableContinuousInput(-Math.PI, Math.PI);
 
     // IMPORTANT: Make sure your driveSubsystem has the methods getPose and setModuleStates
 
     /* EDIT CODE ABOVE HERE (ONLY TOUCH THE REST OF THE CODE IF YOU KNOW WHAT YOU'RE DOING) */
 
-      // Makes it so wheels don't have to turn more than 90 degrees
-      thetaController.enableContinuousInput(-Math.PI, Math.PI);
-
-      new RealTimePPSwerveControllerCommand(
+    // Holds position until the trajectory is ready, then follows it
+    new FollowGeneratedTrajectory(
+      driveSubsystem,
+      trajectoryFuture,
+      trajectoryToFollow -> new RealTimePPSwerveControllerCommand(
         trajectoryToFollow,
         driveSubsystem::getPose, // Functional interface to feed supplier
         DriveConstants.DRIVE_KINEMATICS,
@@ -145,10 +142,8 @@ public class AutoPlace extends DriveCommandBase {
         isFinished,
         endPose,
         driveSubsystem
-      ).schedule();
-    } catch(Exception e) {
-      SmartDashboardLogger.errorString("Trajectory Error Message", e.getLocalizedMessage());
-    }
+      )
+    ).schedule();
     SmarterDashboardRegistry.updateIsFinished(false);
   }
 
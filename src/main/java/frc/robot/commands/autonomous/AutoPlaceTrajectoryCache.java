@@ -0,0 +1,187 @@
+package frc.robot.commands.autonomous;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import com.pathplanner.lib.PathPlannerTrajectory.StopEvent;
+import com.pathplanner.lib.PathPoint;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory.State;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import frc.robot.Constants.TrajectoryConstants;
+import frc.robot.extras.AsyncPathGenerator;
+
+/**
+ * Caches the part of every AutoPlace trajectory that doesn't depend on where the robot starts:
+ * the corridor past the charging station to the node. They're generated once in the background,
+ * so when the driver lines up only the short lead-in to the corridor has to be made.
+ */
+public final class AutoPlaceTrajectoryCache {
+
+  /**
+   * Which side of the charging station the robot drives past.
+   */
+  public enum Corridor {
+    UPPER,
+    LOWER
+  }
+
+  /**
+   * Where the robot joins the corridor. OUTER is for when it's out past the charging station,
+   * INNER is for when it's already between the charging station and the grid.
+   */
+  public enum CorridorEntry {
+    OUTER,
+    INNER
+  }
+
+  private static final int NODE_COUNT = 9;
+  private static final int TAIL_COUNT = 2 * NODE_COUNT * Corridor.values().length * CorridorEntry.values().length;
+
+  private static final AtomicReferenceArray<PathPlannerTrajectory> tails = new AtomicReferenceArray<>(TAIL_COUNT);
+  private static boolean hasStartedGenerating = false;
+
+  private AutoPlaceTrajectoryCache() {}
+
+  /**
+   * Starts generating every tail trajectory in the background. This should be called in robotInit.
+   */
+  public static synchronized void generateTails() {
+    if (hasStartedGenerating) {
+      return;
+    }
+    hasStartedGenerating = true;
+
+    for (Alliance alliance : new Alliance[] {Alliance.Blue, Alliance.Red}) {
+      for (int nodeIndex = 0; nodeIndex < NODE_COUNT; nodeIndex++) {
+        for (Corridor corridor : Corridor.values()) {
+          for (CorridorEntry entry : CorridorEntry.values()) {
+            int tailIndex = getTailIndex(alliance, nodeIndex, corridor, entry);
+            AsyncPathGenerator.generatePath(getPathConstraints(), getTailPathPoints(alliance, nodeIndex, corridor, entry))
+              .thenAccept(tail -> tails.set(tailIndex, tail));
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the cached trajectory from the corridor entry to the node, or null if it hasn't been
+   * generated yet.
+   * @param nodeIndex The index of the node, from 0 to 8.
+   */
+  public static PathPlannerTrajectory getTail(Alliance alliance, int nodeIndex, Corridor corridor, CorridorEntry entry) {
+    return tails.get(getTailIndex(alliance, nodeIndex, corridor, entry));
+  }
+
+  /**
+   * Returns the point where a lead-in trajectory should end so it can be stitched onto the tail.
+   * The robot should be going AUTO_PLACE_CORRIDOR_SPEED there.
+   */
+  public static PathPoint getCorridorEntryPoint(Alliance alliance, Corridor corridor, CorridorEntry entry) {
+    return new PathPoint(
+      getCorridorPosition(alliance, corridor, entry),
+      getHeading(alliance),
+      getEndRotation(alliance),
+      TrajectoryConstants.AUTO_PLACE_CORRIDOR_SPEED
+    );
+  }
+
+  /**
+   * Returns if a lead-in from the start position is long enough to get up to AUTO_PLACE_CORRIDOR_SPEED
+   * from rest by the corridor entry. If it isn't, the stitched trajectory can't be followed, so the
+   * whole trajectory has to be generated instead.
+   */
+  public static boolean canReachCorridorSpeed(Translation2d start, Alliance alliance, Corridor corridor, CorridorEntry entry) {
+    double accelerationDistance = TrajectoryConstants.AUTO_PLACE_CORRIDOR_SPEED * TrajectoryConstants.AUTO_PLACE_CORRIDOR_SPEED
+      / (2 * TrajectoryConstants.MAX_ACCELERATION);
+    // The straight line is the shortest the lead-in can be
+    return start.getDistance(getCorridorPosition(alliance, corridor, entry)) >= accelerationDistance;
+  }
+
+  /**
+   * Returns the path constraints used for the tails and lead-ins.
+   */
+  public static PathConstraints getPathConstraints() {
+    return new PathConstraints(TrajectoryConstants.MAX_SPEED, TrajectoryConstants.MAX_ACCELERATION);
+  }
+
+  /**
+   * Joins a lead-in that ends where the tail starts onto the tail. The tail's states are copied
+   * with their times shifted, so the cached tail isn't changed.
+   */
+  public static PathPlannerTrajectory stitch(PathPlannerTrajectory leadIn, PathPlannerTrajectory tail) {
+    List<State> leadInStates = leadIn.getStates();
+    List<State> tailStates = tail.getStates();
+    List<State> states = new ArrayList<>(leadInStates.size() + tailStates.size() - 1);
+    states.addAll(leadInStates);
+
+    double timeOffset = leadIn.getTotalTimeSeconds();
+    // The tail's first state is the same point as the lead-in's last one
+    for (int i = 1; i < tailStates.size(); i++) {
+      PathPlannerState tailState = (PathPlannerState) tailStates.get(i);
+      PathPlannerState shiftedState = new PathPlannerState();
+      shiftedState.timeSeconds = tailState.timeSeconds + timeOffset;
+      shiftedState.velocityMetersPerSecond = tailState.velocityMetersPerSecond;
+      shiftedState.accelerationMetersPerSecondSq = tailState.accelerationMetersPerSecondSq;
+      shiftedState.poseMeters = tailState.poseMeters;
+      shiftedState.curvatureRadPerMeter = tailState.curvatureRadPerMeter;
+      shiftedState.angularVelocityRadPerSec = tailState.angularVelocityRadPerSec;
+      shiftedState.holonomicRotation = tailState.holonomicRotation;
+      shiftedState.holonomicAngularVelocityRadPerSec = tailState.holonomicAngularVelocityRadPerSec;
+      states.add(shiftedState);
+    }
+
+    return new PathPlannerTrajectory(states, Collections.emptyList(), new StopEvent(), new StopEvent(), false);
+  }
+
+  private static List<PathPoint> getTailPathPoints(Alliance alliance, int nodeIndex, Corridor corridor, CorridorEntry entry) {
+    Rotation2d heading = getHeading(alliance);
+    Rotation2d endRotation = getEndRotation(alliance);
+    List<PathPoint> pathPoints = new ArrayList<PathPoint>();
+    pathPoints.add(getCorridorEntryPoint(alliance, corridor, entry));
+    if (entry == CorridorEntry.OUTER) {
+      pathPoints.add(new PathPoint(getCorridorPosition(alliance, corridor, CorridorEntry.INNER), heading, endRotation));
+    }
+    double nodeX = alliance == Alliance.Blue ? TrajectoryConstants.BLUE_NODE_X_POSITION : TrajectoryConstants.RED_NODE_X_POSITION;
+    double nodeY = alliance == Alliance.Blue
+      ? TrajectoryConstants.BLUE_NODE_Y_POSITIONS[nodeIndex] : TrajectoryConstants.RED_NODE_Y_POSITIONS[nodeIndex];
+    pathPoints.add(new PathPoint(new Translation2d(nodeX, nodeY), heading, endRotation));
+    return pathPoints;
+  }
+
+  /**
+   * Returns the position of the waypoint where the robot enters or leaves the corridor.
+   */
+  public static Translation2d getCorridorPosition(Alliance alliance, Corridor corridor, CorridorEntry entry) {
+    double x;
+    if (alliance == Alliance.Blue) {
+      x = entry == CorridorEntry.OUTER ? TrajectoryConstants.BLUE_OUTER_WAYPOINT_X : TrajectoryConstants.BLUE_INNER_WAYPOINT_X;
+    } else {
+      x = entry == CorridorEntry.OUTER ? TrajectoryConstants.RED_OUTER_WAYPOINT_X : TrajectoryConstants.RED_INNER_WAYPOINT_X;
+    }
+    double y = corridor == Corridor.UPPER ? TrajectoryConstants.UPPER_WAYPOINT_Y : TrajectoryConstants.LOWER_WAYPOINT_Y;
+    return new Translation2d(x, y);
+  }
+
+  private static Rotation2d getHeading(Alliance alliance) {
+    return alliance == Alliance.Blue ? TrajectoryConstants.BLUE_HEADING : TrajectoryConstants.RED_HEADING;
+  }
+
+  private static Rotation2d getEndRotation(Alliance alliance) {
+    return alliance == Alliance.Blue ? TrajectoryConstants.BLUE_END_ROTATION : TrajectoryConstants.RED_END_ROTATION;
+  }
+
+  private static int getTailIndex(Alliance alliance, int nodeIndex, Corridor corridor, CorridorEntry entry) {
+    int allianceIndex = alliance == Alliance.Blue ? 0 : 1;
+    return ((allianceIndex * NODE_COUNT + nodeIndex) * Corridor.values().length + corridor.ordinal())
+      * CorridorEntry.values().length + entry.ordinal();
+  }
+}
@@ -0,0 +1,89 @@
+package frc.robot.commands.autonomous;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.robot.extras.SmartDashboardLogger;
+import frc.robot.subsystems.drive.DriveSubsystem;
+
+/**
+ * Holds the robot in place until a trajectory that's being generated in the background is ready,
+ * then follows it.
+ */
+public class FollowGeneratedTrajectory extends CommandBase {
+
+  private final DriveSubsystem driveSubsystem;
+  private final CompletableFuture<PathPlannerTrajectory> trajectoryFuture;
+  private final Function<PathPlannerTrajectory, Command> followerFactory;
+
+  private Command follower;
+  private boolean hasFailed;
+
+  /**
+   * Follows a trajectory once it's done generating.
+   * @param driveSubsystem The subsystem for the swerve drive.
+   * @param trajectoryFuture The trajectory that's being generated.
+   * @param followerFactory Makes the command that follows the trajectory. It has to only require the drive subsystem.
+   */
+  public FollowGeneratedTrajectory(DriveSubsystem driveSubsystem, CompletableFuture<PathPlannerTrajectory> trajectoryFuture,
+      Function<PathPlannerTrajectory, Command> followerFactory) {
+    this.driveSubsystem = driveSubsystem;
+    this.trajectoryFuture = trajectoryFuture;
+    this.followerFactory = followerFactory;
+    addRequirements(driveSubsystem);
+  }
+
+  @Override
+  public void initialize() {
+    follower = null;
+    hasFailed = false;
+  }
+
+  @Override
+  public void execute() {
+    if (follower == null) {
+      if (!trajectoryFuture.isDone()) {
+        // Holds position while the trajectory is being made
+        driveSubsystem.drive(0, 0, 0, false);
+        return;
+      }
+
+      try {
+        follower = followerFactory.apply(trajectoryFuture.get());
+      } catch (InterruptedException e) {
+        // Whatever interrupted the main thread still needs to see it
+        Thread.currentThread().interrupt();
+        SmartDashboardLogger.errorString("Trajectory Error Message", "Interrupted while getting the trajectory");
+        hasFailed = true;
+        return;
+      } catch (ExecutionException e) {
+        SmartDashboardLogger.errorString("Trajectory Error Message", e.getLocalizedMessage());
+        hasFailed = true;
+        return;
+      }
+      follower.initialize();
+    }
+    follower.execute();
+  }
+
+  @Override
+  public boolean isFinished() {
+    return hasFailed || (follower != null && follower.isFinished());
+  }
+
+  @Override
+  public void end(boolean interrupted) {
+    if (follower != null) {
+      follower.end(interrupted);
+    } else {
+      // Nothing needs the trajectory anymore
+      trajectoryFuture.cancel(false);
+      driveSubsystem.drive(0, 0, 0, false);
+    }
+  }
+}
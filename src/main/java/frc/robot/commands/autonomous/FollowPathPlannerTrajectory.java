@@ -4,7 +4,6 @@
 
 package frc.robot.commands.autonomous;
 
-import com.pathplanner.lib.PathPlanner;
 import com.pathplanner.lib.PathPlannerTrajectory;
 import com.pathplanner.lib.commands.PPSwerveControllerCommand;
 
@@ -15,6 +14,7 @@ import frc.robot.Constants.DriveConstants;
 import frc.robot.Constants.TrajectoryConstants;
 import frc.robot.Constants.LEDConstants.LEDProcess;
 import frc.robot.commands.DriveCommandBase;
+import frc.robot.extras.CompiledTrajectories;
 import frc.robot.subsystems.drive.DriveSubsystem;
 import frc.robot.subsystems.leds.LEDSubsystem;
 import frc.robot.subsystems.vision.VisionSubsystem;
@@ -61,8 +61,10 @@ public class FollowPathPlannerTrajectory extends DriveCommandBase {
     addRequirements(visionSubsystem, leds);
     this.resetOdometryToTrajectoryStart = resetOdometryToTrajectoryStart;
 
-    // Makes a trajectory                                                     
-    PathPlannerTrajectory trajectoryToFollow = PathPlanner.loadPath(trajectoryName, 3, 1.5);
+    // Loads the trajectory that was generated at build time                                                     
+    PathPlannerTrajectory trajectoryToFollow = CompiledTrajectories.loadPath(
+      trajectoryName, TrajectoryConstants.DEPLOYED_PATH_MAX_VELOCITY, TrajectoryConstants.DEPLOYED_PATH_MAX_ACCELERATION
+    );
 
     trajectoryInitialPose = trajectoryToFollow.getInitialHolonomicPose();
 
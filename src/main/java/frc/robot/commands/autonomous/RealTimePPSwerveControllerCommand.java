@@ -8,7 +8,6 @@ package frc.robot.commands.autonomous;
 import com.pathplanner.lib.PathPlannerTrajectory;
 import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
 import com.pathplanner.lib.controllers.PPHolonomicDriveController;
-import com.pathplanner.lib.server.PathPlannerServer;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
@@ -20,6 +19,8 @@ import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.*;
 import frc.robot.Constants.TrajectoryConstants;
+import frc.robot.extras.PathPlannerTelemetry;
+import frc.robot.extras.TrajectorySampler;
 import frc.robot.subsystems.drive.DriveSubsystem;
 
 import java.util.function.BiConsumer;
@@ -42,6 +43,7 @@ public class RealTimePPSwerveControllerCommand extends CommandBase {
   private final DriveSubsystem driveSubsystem;
 
   private PathPlannerTrajectory transformedTrajectory;
+  private TrajectorySampler trajectorySampler;
 
   private static Consumer<PathPlannerTrajectory> logActiveTrajectory = null;
   private static Consumer<Pose2d> logTargetPose = null;
@@ -260,6 +262,9 @@ public class RealTimePPSwerveControllerCommand extends CommandBase {
       transformedTrajectory = trajectory;
     }
 
+    // Time only moves forward while following, so sampling can pick up where it left off
+    trajectorySampler = new TrajectorySampler(transformedTrajectory);
+
     if (logActiveTrajectory != null) {
       logActiveTrajectory.accept(transformedTrajectory);
     }
@@ -267,19 +272,17 @@ public class RealTimePPSwerveControllerCommand extends CommandBase {
     timer.reset();
     timer.start();
 
-    PathPlannerServer.sendActivePath(transformedTrajectory.getStates());
+    PathPlannerTelemetry.sendActivePath(transformedTrajectory);
   }
 
   @Override
   public void execute() {
     double currentTime = this.timer.get();
-    PathPlannerState desiredState = (PathPlannerState) transformedTrajectory.sample(currentTime);
+    PathPlannerState desiredState = trajectorySampler.sample(currentTime);
 
     Pose2d currentPose = this.poseSupplier.get();
 
-    PathPlannerServer.sendPathFollowingData(
-        new Pose2d(desiredState.poseMeters.getTranslation(), desiredState.holonomicRotation),
-        currentPose);
+    PathPlannerTelemetry.sendPathFollowingData(desiredState, currentPose);
 
     ChassisSpeeds targetChassisSpeeds = this.controller.calculate(currentPose, desiredState);
 
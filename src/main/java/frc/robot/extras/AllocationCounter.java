@@ -0,0 +1,71 @@
+package frc.robot.extras;
+
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.ThreadMXBean;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Reads how many bytes the current thread has allocated so far, for finding out which parts of
+ * the loop make garbage. This is off until enable is called, because reading the count isn't free.
+ */
+final class AllocationCounter {
+
+  private static final int CALIBRATION_READS = 16;
+
+  private static ThreadMXBean threadMXBean;
+  private static boolean isEnabled = false;
+  // What reading the count allocates by itself, taken off every measurement
+  private static long readOverheadBytes = 0;
+
+  private AllocationCounter() {}
+
+  /**
+   * Turns on allocation counting if the JVM supports it, and reports a warning if it doesn't.
+   */
+  static synchronized void enable() {
+    if (isEnabled) {
+      return;
+    }
+    if (!(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean)) {
+      DriverStation.reportWarning("This JVM can't count allocated bytes per thread", false);
+      return;
+    }
+    threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    if (!threadMXBean.isThreadAllocatedMemorySupported()) {
+      DriverStation.reportWarning("This JVM can't count allocated bytes per thread", false);
+      return;
+    }
+    threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+    // Reading the count allocates a little on Java 11, so the smallest difference between two reads is the overhead
+    long overheadBytes = Long.MAX_VALUE;
+    long lastAllocatedBytes = readAllocatedBytes();
+    for (int i = 0; i < CALIBRATION_READS; i++) {
+      long allocatedBytes = readAllocatedBytes();
+      overheadBytes = Math.min(overheadBytes, allocatedBytes - lastAllocatedBytes);
+      lastAllocatedBytes = allocatedBytes;
+    }
+    readOverheadBytes = overheadBytes;
+    isEnabled = true;
+  }
+
+  static boolean isEnabled() {
+    return isEnabled;
+  }
+
+  /**
+   * Returns how many bytes the current thread has allocated since it started.
+   */
+  static long readAllocatedBytes() {
+    return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Returns how many bytes were allocated between two reads, not counting what the reads allocated.
+   */
+  static long getAllocatedBytesBetween(long startAllocatedBytes, long endAllocatedBytes) {
+    return Math.max(endAllocatedBytes - startAllocatedBytes - readOverheadBytes, 0);
+  }
+}
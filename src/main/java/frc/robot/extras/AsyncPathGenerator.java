@@ -0,0 +1,38 @@
+package frc.robot.extras;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPoint;
+
+/**
+ * Generates PathPlanner trajectories on a background thread so the main loop doesn't stall while
+ * a path is being made.
+ */
+public final class AsyncPathGenerator {
+
+  // One thread is enough, the driver can only ask for one trajectory at a time
+  private static final ExecutorService generatorThread = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "Trajectory generator");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private AsyncPathGenerator() {}
+
+  /**
+   * Starts generating a trajectory through the path points.
+   * @param constraints The max velocity and acceleration of the trajectory.
+   * @param pathPoints The points the trajectory goes through. This list shouldn't be changed after
+   * it's passed in.
+   * @return A future that completes with the trajectory, or completes exceptionally if it couldn't be made.
+   */
+  public static CompletableFuture<PathPlannerTrajectory> generatePath(PathConstraints constraints, List<PathPoint> pathPoints) {
+    return CompletableFuture.supplyAsync(() -> PathPlanner.generatePath(constraints, pathPoints), generatorThread);
+  }
+}
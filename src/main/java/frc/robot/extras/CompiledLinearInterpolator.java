@@ -0,0 +1,149 @@
+package frc.robot.extras;
+
+public final class CompiledLinearInterpolator {
+
+  private final double[] xValues;
+  // yValues[i * outputCount + j] is output j at xValues[i], slopes are laid out the same way for each segment
+  private final double[] yValues;
+  private final double[] slopes;
+  private final int outputCount;
+
+  // The segment the last lookup landed in, lookups usually stay in the same or a neighboring one
+  private int lastSegment = 0;
+
+  /**
+   * Handles finding values through a lookup table in a linear fashion, like SingleLinearInterpolator
+   * and MultiLinearInterpolator, but does all of the work that doesn't depend on the input up front.
+   * Lookups don't allocate and take O(log n) time at worst. It remembers the last segment it used, so
+   * each thread should have its own. At an x value that's in the table more than once, the first row with
+   * it is used, the same as SingleLinearInterpolator.
+   * @param lookupTable an array containing {x, y1, y2, ...yn} points, the x values must be in ascending order.
+   */
+  public CompiledLinearInterpolator(double[][] lookupTable) {
+    if (lookupTable.length == 0 || lookupTable[0].length < 2) {
+      throw new IllegalArgumentException("The lookup table needs at least one row with an x and a y value");
+    }
+
+    outputCount = lookupTable[0].length - 1;
+    xValues = new double[lookupTable.length];
+    yValues = new double[lookupTable.length * outputCount];
+    slopes = new double[Math.max(lookupTable.length - 1, 1) * outputCount];
+
+    for (int i = 0; i < lookupTable.length; i++) {
+      if (i > 0 && lookupTable[i][0] < lookupTable[i - 1][0]) {
+        throw new IllegalArgumentException("The lookup table's x values must be in ascending order");
+      }
+      xValues[i] = lookupTable[i][0];
+      for (int j = 0; j < outputCount; j++) {
+        yValues[i * outputCount + j] = lookupTable[i][j + 1];
+      }
+    }
+
+    for (int i = 0; i < lookupTable.length - 1; i++) {
+      double run = xValues[i + 1] - xValues[i];
+      for (int j = 0; j < outputCount; j++) {
+        // Duplicate x values make a flat segment instead of dividing by 0
+        slopes[i * outputCount + j] = run == 0 ? 0 : (yValues[(i + 1) * outputCount + j] - yValues[i * outputCount + j]) / run;
+      }
+    }
+  }
+
+  /**
+   * Returns how many values each lookup gives, the number of columns in the table minus 1.
+   */
+  public int getOutputCount() {
+    return outputCount;
+  }
+
+  /**
+   * Returns the first linearly-interpolated value from the lookup table corresponding to the given input value.
+   * This is the same as SingleLinearInterpolator's lookup.
+   */
+  public double getLookupValue(double inputXValue) {
+    return getLookupValue(inputXValue, 0);
+  }
+
+  /**
+   * Returns one linearly-interpolated value from the lookup table corresponding to the given input value.
+   * @param outputIndex Which value to return, 0 being the table's second column.
+   */
+  public double getLookupValue(double inputXValue, int outputIndex) {
+    // Clamps to the ends of the table
+    if (inputXValue <= xValues[0]) {
+      return yValues[outputIndex];
+    } else if (inputXValue > xValues[xValues.length - 1]) {
+      return yValues[(xValues.length - 1) * outputCount + outputIndex];
+    }
+
+    int segment = findSegment(inputXValue);
+    int index = segment * outputCount + outputIndex;
+    return yValues[index] + slopes[index] * (inputXValue - xValues[segment]);
+  }
+
+  /**
+   * Writes every linearly-interpolated value from the lookup table corresponding to the given input value
+   * into the output array. This is the same as MultiLinearInterpolator's lookup without making a new array.
+   * @param output An array at least getOutputCount() long.
+   */
+  public void getLookupValues(double inputXValue, double[] output) {
+    if (inputXValue <= xValues[0]) {
+      System.arraycopy(yValues, 0, output, 0, outputCount);
+      return;
+    } else if (inputXValue > xValues[xValues.length - 1]) {
+      System.arraycopy(yValues, (xValues.length - 1) * outputCount, output, 0, outputCount);
+      return;
+    }
+
+    int segment = findSegment(inputXValue);
+    double deltaX = inputXValue - xValues[segment];
+    int rowStart = segment * outputCount;
+    for (int j = 0; j < outputCount; j++) {
+      output[j] = yValues[rowStart + j] + slopes[rowStart + j] * deltaX;
+    }
+  }
+
+  /**
+   * Returns the index of the segment that the input value is in, between xValues[segment] and xValues[segment + 1].
+   * If the input value is in the table more than once, the segment starts at the first row with it.
+   * The input value has to be inside the table.
+   */
+  private int findSegment(double inputXValue) {
+    int segment = findLastSegmentAtOrBefore(inputXValue);
+    // Duplicate x values are rare and only matter exactly at them, so this doesn't usually loop
+    while (segment > 0 && xValues[segment - 1] == inputXValue) {
+      segment--;
+    }
+    return segment;
+  }
+
+  /**
+   * Returns the last segment that starts at or before the input value, checking the last segment and
+   * its neighbors before searching.
+   */
+  private int findLastSegmentAtOrBefore(double inputXValue) {
+    int segment = lastSegment;
+    if (inputXValue >= xValues[segment] && inputXValue < xValues[segment + 1]) {
+      return segment;
+    } else if (segment + 2 < xValues.length && inputXValue >= xValues[segment + 1] && inputXValue < xValues[segment + 2]) {
+      lastSegment = segment + 1;
+      return lastSegment;
+    } else if (segment > 0 && inputXValue >= xValues[segment - 1] && inputXValue < xValues[segment]) {
+      lastSegment = segment - 1;
+      return lastSegment;
+    }
+
+    // Binary searches for the last x value less than or equal to the input
+    int low = 0;
+    int high = xValues.length - 2;
+    while (low < high) {
+      int middle = (low + high + 1) >>> 1;
+      if (xValues[middle] <= inputXValue) {
+        low = middle;
+      } else {
+        high = middle - 1;
+      }
+    }
+    lastSegment = low;
+    return low;
+  }
+}
@@ -0,0 +1,162 @@
+package frc.robot.extras;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import com.pathplanner.lib.PathPlannerTrajectory.StopEvent;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.trajectory.Trajectory.State;
+import edu.wpi.first.wpilibj.Filesystem;
+
+/**
+ * Reads and writes PathPlanner trajectories that were generated at build time. The
+ * compilePathPlannerTrajectories Gradle task writes one file per .path file into the
+ * compiledtrajectories deploy directory, and the robot maps them straight into memory instead
+ * of parsing the JSON and generating the trajectory on boot.
+ *
+ * <p>The file is a header (magic, version, the .path file's CRC32, the max velocity and
+ * acceleration, and the state count) followed by STATE_DOUBLES doubles for each state. Event
+ * markers and stop events aren't stored.
+ */
+public final class CompiledTrajectories {
+
+  public static final String DIRECTORY_NAME = "compiledtrajectories";
+  public static final String FILE_EXTENSION = ".traj";
+
+  private static final int MAGIC = 0x54524A31; // "TRJ1"
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = Integer.BYTES * 3 + Long.BYTES + Double.BYTES * 2;
+  // time, x, y, heading, velocity, acceleration, curvature, angular velocity, holonomic rotation, holonomic angular velocity
+  private static final int STATE_DOUBLES = 10;
+
+  private CompiledTrajectories() {}
+
+  /**
+   * Loads the compiled version of a PathPlanner path from the deploy directory. If it's missing
+   * or was compiled from a different .path file or with different constraints, the path is
+   * loaded and generated with PathPlanner like normal.
+   * @param pathName The name of the PathPlanner path file, without the filepath or .path extension.
+   */
+  public static PathPlannerTrajectory loadPath(String pathName, double maxVelocity, double maxAcceleration) {
+    File deployDirectory = Filesystem.getDeployDirectory();
+    Path pathFile = new File(deployDirectory, "pathplanner/" + pathName + ".path").toPath();
+    Path compiledFile = new File(deployDirectory, DIRECTORY_NAME + "/" + pathName + FILE_EXTENSION).toPath();
+
+    try {
+      PathPlannerTrajectory trajectory = read(compiledFile, getChecksum(pathFile), maxVelocity, maxAcceleration);
+      if (trajectory != null) {
+        return trajectory;
+      }
+      SmartDashboardLogger.errorString("Compiled Trajectory Error", pathName + " is out of date, generating it instead");
+    } catch (IOException e) {
+      SmartDashboardLogger.errorString("Compiled Trajectory Error", pathName + ": " + e.getLocalizedMessage());
+    }
+    return PathPlanner.loadPath(pathName, maxVelocity, maxAcceleration);
+  }
+
+  /**
+   * Returns the CRC32 of a .path file, which is stored in the compiled file so that one compiled
+   * from an older version of the path isn't used.
+   */
+  public static long getChecksum(Path pathFile) throws IOException {
+    CRC32 checksum = new CRC32();
+    checksum.update(Files.readAllBytes(pathFile));
+    return checksum.getValue();
+  }
+
+  /**
+   * Writes a trajectory to a compiled trajectory file.
+   * @param sourceChecksum The CRC32 of the .path file the trajectory was generated from.
+   */
+  public static void write(PathPlannerTrajectory trajectory, long sourceChecksum, double maxVelocity,
+      double maxAcceleration, Path compiledFile) throws IOException {
+    List<State> states = trajectory.getStates();
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + states.size() * STATE_DOUBLES * Double.BYTES);
+    buffer.putInt(MAGIC);
+    buffer.putInt(VERSION);
+    buffer.putLong(sourceChecksum);
+    buffer.putDouble(maxVelocity);
+    buffer.putDouble(maxAcceleration);
+    buffer.putInt(states.size());
+
+    for (State state : states) {
+      PathPlannerState pathPlannerState = (PathPlannerState) state;
+      buffer.putDouble(pathPlannerState.timeSeconds);
+      buffer.putDouble(pathPlannerState.poseMeters.getX());
+      buffer.putDouble(pathPlannerState.poseMeters.getY());
+      buffer.putDouble(pathPlannerState.poseMeters.getRotation().getRadians());
+      buffer.putDouble(pathPlannerState.velocityMetersPerSecond);
+      buffer.putDouble(pathPlannerState.accelerationMetersPerSecondSq);
+      buffer.putDouble(pathPlannerState.curvatureRadPerMeter);
+      buffer.putDouble(pathPlannerState.angularVelocityRadPerSec);
+      buffer.putDouble(pathPlannerState.holonomicRotation.getRadians());
+      buffer.putDouble(pathPlannerState.holonomicAngularVelocityRadPerSec);
+    }
+
+    buffer.flip();
+    Files.createDirectories(compiledFile.getParent());
+    try (FileChannel channel = FileChannel.open(compiledFile,
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+  }
+
+  /**
+   * Maps a compiled trajectory file into memory and reads it.
+   * @return The trajectory, or null if the file doesn't match the checksum or constraints.
+   */
+  public static PathPlannerTrajectory read(Path compiledFile, long sourceChecksum, double maxVelocity,
+      double maxAcceleration) throws IOException {
+    try (FileChannel channel = FileChannel.open(compiledFile, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+        throw new IOException(compiledFile.getFileName() + " isn't a compiled trajectory");
+      }
+      if (buffer.getInt() != VERSION
+        || buffer.getLong() != sourceChecksum
+        || buffer.getDouble() != maxVelocity
+        || buffer.getDouble() != maxAcceleration) {
+        return null;
+      }
+
+      int stateCount = buffer.getInt();
+      if (buffer.remaining() < stateCount * STATE_DOUBLES * Double.BYTES) {
+        throw new IOException(compiledFile.getFileName() + " is cut off");
+      }
+
+      List<State> states = new ArrayList<>(stateCount);
+      for (int i = 0; i < stateCount; i++) {
+        PathPlannerState state = new PathPlannerState();
+        state.timeSeconds = buffer.getDouble();
+        double x = buffer.getDouble();
+        double y = buffer.getDouble();
+        state.poseMeters = new Pose2d(x, y, new Rotation2d(buffer.getDouble()));
+        state.velocityMetersPerSecond = buffer.getDouble();
+        state.accelerationMetersPerSecondSq = buffer.getDouble();
+        state.curvatureRadPerMeter = buffer.getDouble();
+        state.angularVelocityRadPerSec = buffer.getDouble();
+        state.holonomicRotation = new Rotation2d(buffer.getDouble());
+        state.holonomicAngularVelocityRadPerSec = buffer.getDouble();
+        states.add(state);
+      }
+      return new PathPlannerTrajectory(states, Collections.emptyList(), new StopEvent(), new StopEvent(), true);
+    }
+  }
+}
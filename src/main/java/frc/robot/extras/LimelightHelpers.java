@@ -22,9 +22,6 @@ import java.util.concurrent.CompletableFuture;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonFormat.Shape;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class LimelightHelpers {
 
@@ -123,20 +120,21 @@ public class LimelightHelpers {
         @JsonProperty("fam")
         public String fiducialFamily;
 
+        // Package-private so LimelightResultsParser can fill them in place
         @JsonProperty("t6c_ts")
-        private double[] cameraPose_TargetSpace;
+        double[] cameraPose_TargetSpace;
 
         @JsonProperty("t6r_fs")
-        private double[] robotPose_FieldSpace;
+        double[] robotPose_FieldSpace;
 
         @JsonProperty("t6r_ts")
-        private double[] robotPose_TargetSpace;
+        double[] robotPose_TargetSpace;
 
         @JsonProperty("t6t_cs")
-        private double[] targetPose_CameraSpace;
+        double[] targetPose_CameraSpace;
 
         @JsonProperty("t6t_rs")
-        private double[] targetPose_RobotSpace;
+        double[] targetPose_RobotSpace;
 
         public Pose3d getCameraPose_TargetSpace()
         {
@@ -368,8 +366,6 @@ public class LimelightHelpers {
         }
     }
 
-    private static ObjectMapper mapper;
-
     static final String sanitizeName(String name) {
         if (name == "" || name == null) {
             return "limelight";
@@ -750,25 +746,17 @@ public class LimelightHelpers {
      * Parses Limelight's JSON results dump into a LimelightResults Object
      */
     public static LimelightResults getLatestResults(String limelightName) {
-        long start = System.nanoTime();
-        LimelightHelpers.LimelightResults results = new LimelightHelpers.LimelightResults();
-        if (mapper == null) {
-            mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        }
-
-        try {
-            String json = getJSONDump(limelightName);
-            if (json != null && !json.equals("")) {
-                results = mapper.readValue(json, LimelightResults.class);
-            }
-        } catch (JsonProcessingException e) {
-            System.err.println("lljson error: " + e.getMessage());
-        }
-
-        long end = System.nanoTime();
-        double millis = (end - start) * .000001;
-        results.targetingResults.latency_jsonParse = millis;
+        return parseResults(getJSONDump(limelightName));
+    }
 
-        return results;
+    /**
+     * Parses a JSON results dump that has already been read from NetworkTables into a
+     * new LimelightResults Object. Safe to call from a background thread. To parse
+     * without allocating new results every time, use a LimelightResultsParser directly.
+     */
+    public static LimelightResults parseResults(String json) {
+        LimelightResultsParser parser = new LimelightResultsParser();
+        parser.parse(json);
+        return parser.getResults();
     }
-}
\ No newline at end of file
+}
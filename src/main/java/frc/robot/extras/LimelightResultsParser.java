@@ -0,0 +1,314 @@
+package frc.robot.extras;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import frc.robot.extras.LimelightHelpers.LimelightResults;
+import frc.robot.extras.LimelightHelpers.LimelightTarget_Fiducial;
+import frc.robot.extras.LimelightHelpers.Results;
+
+/**
+ * Parses a limelight's JSON results dump with a streaming parser instead of data binding.
+ * Every parse fills in the same LimelightResults, and april tag targets are taken from a pool,
+ * so after the first few frames parsing doesn't allocate new results. Only the fields we use
+ * are read, the retro, classifier, detector and barcode targets are skipped.
+ *
+ * <p>Because the results are reused, anything holding onto getResults() will see them change
+ * on the next parse. Use one parser per buffer if the results are read from another thread.
+ */
+public final class LimelightResultsParser {
+
+  // Thread safe and expensive to make, so it's shared by every parser
+  private static final JsonFactory jsonFactory = new JsonFactory();
+
+  private final LimelightResults results = new LimelightResults();
+
+  // Every fiducial target that has been needed so far, reused between parses
+  private LimelightTarget_Fiducial[] fiducialPool = new LimelightTarget_Fiducial[0];
+  // fiducialArraysBySize[n] holds the first n targets of the pool, so the results always get an array of the right length
+  private LimelightTarget_Fiducial[][] fiducialArraysBySize = { new LimelightTarget_Fiducial[0] };
+
+  /**
+   * Returns the results that every parse fills in.
+   */
+  public LimelightResults getResults() {
+    return results;
+  }
+
+  /**
+   * Parses the JSON dump into getResults(). If the dump is empty or can't be parsed, the
+   * results are left with no targets and marked as not valid.
+   * @param json The JSON results dump from the limelight's "json" entry.
+   * @return False if the dump couldn't be parsed.
+   */
+  public boolean parse(String json) {
+    long start = System.nanoTime();
+    Results targetingResults = results.targetingResults;
+    resetResults(targetingResults);
+
+    boolean wasParsed = true;
+    if (json != null && !json.isEmpty()) {
+      try (JsonParser parser = jsonFactory.createParser(json)) {
+        if (parser.nextToken() == JsonToken.START_OBJECT) {
+          while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if ("Results".equals(fieldName)) {
+              parseResults(parser, targetingResults);
+            } else {
+              parser.skipChildren();
+            }
+          }
+        }
+      } catch (IOException e) {
+        System.err.println("lljson error: " + e.getMessage());
+        resetResults(targetingResults);
+        wasParsed = false;
+      }
+    }
+
+    targetingResults.latency_jsonParse = (System.nanoTime() - start) * .000001;
+    return wasParsed;
+  }
+
+  private void parseResults(JsonParser parser, Results targetingResults) throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      parser.skipChildren();
+      return;
+    }
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.getCurrentName();
+      parser.nextToken();
+      switch (fieldName) {
+        case "pID":
+          targetingResults.pipelineID = parser.getValueAsDouble();
+          break;
+        case "tl":
+          targetingResults.latency_pipeline = parser.getValueAsDouble();
+          break;
+        case "cl":
+          targetingResults.latency_capture = parser.getValueAsDouble();
+          break;
+        case "ts":
+          targetingResults.timestamp_LIMELIGHT_publish = parser.getValueAsDouble();
+          break;
+        case "ts_rio":
+          targetingResults.timestamp_RIOFPGA_capture = parser.getValueAsDouble();
+          break;
+        case "v":
+          targetingResults.valid = readBoolean(parser);
+          break;
+        case "botpose":
+          targetingResults.botpose = readDoubleArray(parser, targetingResults.botpose);
+          break;
+        case "botpose_wpired":
+          targetingResults.botpose_wpired = readDoubleArray(parser, targetingResults.botpose_wpired);
+          break;
+        case "botpose_wpiblue":
+          targetingResults.botpose_wpiblue = readDoubleArray(parser, targetingResults.botpose_wpiblue);
+          break;
+        case "t6c_rs":
+          targetingResults.camerapose_robotspace = readDoubleArray(parser, targetingResults.camerapose_robotspace);
+          break;
+        case "Fiducial":
+          targetingResults.targets_Fiducials = parseFiducials(parser);
+          break;
+        default:
+          // Retro, Classifier, Detector, Barcode and anything newer firmware adds
+          parser.skipChildren();
+          break;
+      }
+    }
+  }
+
+  private LimelightTarget_Fiducial[] parseFiducials(JsonParser parser) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      parser.skipChildren();
+      return fiducialArraysBySize[0];
+    }
+
+    int fiducialCount = 0;
+    while (parser.nextToken() == JsonToken.START_OBJECT) {
+      LimelightTarget_Fiducial fiducial = getPooledFiducial(fiducialCount);
+      // Kept so the same tag family name can be reused after the reset
+      String previousFamily = fiducial.fiducialFamily;
+      resetFiducial(fiducial);
+      parseFiducial(parser, fiducial, previousFamily);
+      fiducialCount++;
+    }
+    return getFiducialArray(fiducialCount);
+  }
+
+  private void parseFiducial(JsonParser parser, LimelightTarget_Fiducial fiducial, String previousFamily) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.getCurrentName();
+      parser.nextToken();
+      switch (fieldName) {
+        case "fID":
+          fiducial.fiducialID = parser.getValueAsDouble();
+          break;
+        case "fam":
+          fiducial.fiducialFamily = readString(parser, previousFamily);
+          break;
+        case "t6c_ts":
+          fiducial.cameraPose_TargetSpace = readDoubleArray(parser, fiducial.cameraPose_TargetSpace);
+          break;
+        case "t6r_fs":
+          fiducial.robotPose_FieldSpace = readDoubleArray(parser, fiducial.robotPose_FieldSpace);
+          break;
+        case "t6r_ts":
+          fiducial.robotPose_TargetSpace = readDoubleArray(parser, fiducial.robotPose_TargetSpace);
+          break;
+        case "t6t_cs":
+          fiducial.targetPose_CameraSpace = readDoubleArray(parser, fiducial.targetPose_CameraSpace);
+          break;
+        case "t6t_rs":
+          fiducial.targetPose_RobotSpace = readDoubleArray(parser, fiducial.targetPose_RobotSpace);
+          break;
+        case "ta":
+          fiducial.ta = parser.getValueAsDouble();
+          break;
+        case "tx":
+          fiducial.tx = parser.getValueAsDouble();
+          break;
+        case "txp":
+          fiducial.tx_pixels = parser.getValueAsDouble();
+          break;
+        case "ty":
+          fiducial.ty = parser.getValueAsDouble();
+          break;
+        case "typ":
+          fiducial.ty_pixels = parser.getValueAsDouble();
+          break;
+        case "ts":
+          fiducial.ts = parser.getValueAsDouble();
+          break;
+        default:
+          // pts, skew and anything newer firmware adds
+          parser.skipChildren();
+          break;
+      }
+    }
+  }
+
+  /**
+   * Returns the pooled fiducial target at the index, making it if it hasn't been needed yet.
+   */
+  private LimelightTarget_Fiducial getPooledFiducial(int index) {
+    if (index >= fiducialPool.length) {
+      fiducialPool = Arrays.copyOf(fiducialPool, Math.max(4, fiducialPool.length * 2));
+    }
+    if (fiducialPool[index] == null) {
+      fiducialPool[index] = new LimelightTarget_Fiducial();
+    }
+    return fiducialPool[index];
+  }
+
+  /**
+   * Returns an array holding the first fiducialCount pooled targets.
+   */
+  private LimelightTarget_Fiducial[] getFiducialArray(int fiducialCount) {
+    if (fiducialCount >= fiducialArraysBySize.length) {
+      fiducialArraysBySize = Arrays.copyOf(fiducialArraysBySize, fiducialCount + 1);
+    }
+    if (fiducialArraysBySize[fiducialCount] == null) {
+      fiducialArraysBySize[fiducialCount] = Arrays.copyOf(fiducialPool, fiducialCount);
+    }
+    return fiducialArraysBySize[fiducialCount];
+  }
+
+  /**
+   * Clears everything so fields missing from the next dump don't keep old values.
+   */
+  private void resetResults(Results targetingResults) {
+    targetingResults.pipelineID = 0;
+    targetingResults.latency_pipeline = 0;
+    targetingResults.latency_capture = 0;
+    targetingResults.latency_jsonParse = 0;
+    targetingResults.timestamp_LIMELIGHT_publish = 0;
+    targetingResults.timestamp_RIOFPGA_capture = 0;
+    targetingResults.valid = false;
+    Arrays.fill(targetingResults.botpose, 0);
+    Arrays.fill(targetingResults.botpose_wpired, 0);
+    Arrays.fill(targetingResults.botpose_wpiblue, 0);
+    Arrays.fill(targetingResults.camerapose_robotspace, 0);
+    targetingResults.targets_Fiducials = fiducialArraysBySize[0];
+  }
+
+  /**
+   * Clears a pooled target so fields missing from its next dump don't keep the values of
+   * whatever target used it before.
+   */
+  private static void resetFiducial(LimelightTarget_Fiducial fiducial) {
+    fiducial.fiducialID = 0;
+    fiducial.fiducialFamily = null;
+    Arrays.fill(fiducial.cameraPose_TargetSpace, 0);
+    Arrays.fill(fiducial.robotPose_FieldSpace, 0);
+    Arrays.fill(fiducial.robotPose_TargetSpace, 0);
+    Arrays.fill(fiducial.targetPose_CameraSpace, 0);
+    Arrays.fill(fiducial.targetPose_RobotSpace, 0);
+    fiducial.ta = 0;
+    fiducial.tx = 0;
+    fiducial.tx_pixels = 0;
+    fiducial.ty = 0;
+    fiducial.ty_pixels = 0;
+    fiducial.ts = 0;
+  }
+
+  private static boolean readBoolean(JsonParser parser) throws IOException {
+    // The limelight sends "v" as a number
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+      return token == JsonToken.VALUE_TRUE;
+    }
+    return parser.getValueAsDouble() != 0;
+  }
+
+  /**
+   * Reads a JSON number array into the existing array. A new array is only made if the
+   * length changes, which doesn't happen with the limelight's 6 element poses.
+   */
+  private static double[] readDoubleArray(JsonParser parser, double[] values) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      parser.skipChildren();
+      return values;
+    }
+
+    double[] readValues = values;
+    int count = 0;
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      if (count == readValues.length) {
+        readValues = Arrays.copyOf(readValues, Math.max(6, readValues.length * 2));
+      }
+      readValues[count++] = parser.getValueAsDouble();
+    }
+    return count == readValues.length ? readValues : Arrays.copyOf(readValues, count);
+  }
+
+  /**
+   * Reads a JSON string, returning the existing string if the text is the same so the
+   * tag family name isn't copied every frame.
+   */
+  private static String readString(JsonParser parser, String existingValue) throws IOException {
+    if (existingValue != null) {
+      char[] text = parser.getTextCharacters();
+      int offset = parser.getTextOffset();
+      int length = parser.getTextLength();
+      if (length == existingValue.length()) {
+        boolean isSame = true;
+        for (int i = 0; i < length && isSame; i++) {
+          isSame = text[offset + i] == existingValue.charAt(i);
+        }
+        if (isSame) {
+          return existingValue;
+        }
+      }
+    }
+    return parser.getText();
+  }
+}
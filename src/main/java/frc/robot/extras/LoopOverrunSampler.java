@@ -0,0 +1,132 @@
+package frc.robot.extras;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import frc.robot.Constants.DiagnosticConstants;
+
+/**
+ * Finds out what the main thread is doing when a loop overruns. Robot marks when each loop starts
+ * and ends, and once a loop has taken longer than LOOP_OVERRUN_THRESHOLD_MS, a background thread
+ * takes the main thread's stack every STACK_SAMPLE_INTERVAL_MS until the loop ends. The samples are
+ * counted by stack and written in the collapsed stack format flame graph tools read, one line per
+ * stack with its frames from the bottom up separated by semicolons, then the count. The file is
+ * loop-overrun-stacks.folded in /home/lvuser (the project directory in simulation), and it's
+ * rewritten with every sample since the robot code started every WRITE_PERIOD_MS.
+ */
+public final class LoopOverrunSampler {
+
+  private static final long WRITE_PERIOD_MS = 5000;
+  private static final String FILE_NAME = "loop-overrun-stacks.folded";
+  private static final long NOT_IN_LOOP = Long.MIN_VALUE;
+
+  private static volatile long loopStartNanoseconds = NOT_IN_LOOP;
+  private static Thread mainThread;
+  private static Thread samplerThread;
+
+  // Only used by the sampler thread
+  private static final Map<String, Integer> sampleCountsByStack = new HashMap<>();
+  private static final StringBuilder stackBuilder = new StringBuilder();
+  private static boolean hasNewSamples = false;
+
+  private LoopOverrunSampler() {}
+
+  /**
+   * Starts sampling loops on the thread this is called from, which should be the main thread.
+   */
+  public static synchronized void start() {
+    if (samplerThread != null) {
+      return;
+    }
+    mainThread = Thread.currentThread();
+    samplerThread = new Thread(LoopOverrunSampler::sample, "Loop overrun sampler");
+    samplerThread.setDaemon(true);
+    samplerThread.start();
+  }
+
+  /**
+   * Marks the start of a loop, called by the main thread.
+   */
+  public static void markLoopStart() {
+    loopStartNanoseconds = System.nanoTime();
+  }
+
+  /**
+   * Marks the end of a loop, called by the main thread.
+   */
+  public static void markLoopEnd() {
+    loopStartNanoseconds = NOT_IN_LOOP;
+  }
+
+  private static void sample() {
+    long thresholdNanoseconds = DiagnosticConstants.LOOP_OVERRUN_THRESHOLD_MS * 1_000_000;
+    long lastWriteMilliseconds = System.currentTimeMillis();
+    while (true) {
+      try {
+        Thread.sleep(DiagnosticConstants.STACK_SAMPLE_INTERVAL_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+
+      long startNanoseconds = loopStartNanoseconds;
+      if (startNanoseconds != NOT_IN_LOOP && System.nanoTime() - startNanoseconds > thresholdNanoseconds) {
+        StackTraceElement[] stackTrace = mainThread.getStackTrace();
+        // If the loop ended while the stack was being taken, it's from the next loop or from waiting
+        if (loopStartNanoseconds == startNanoseconds) {
+          addSample(stackTrace);
+        }
+      }
+
+      if (hasNewSamples && System.currentTimeMillis() - lastWriteMilliseconds >= WRITE_PERIOD_MS) {
+        writeSamples();
+        lastWriteMilliseconds = System.currentTimeMillis();
+      }
+    }
+  }
+
+  private static void addSample(StackTraceElement[] stackTrace) {
+    if (stackTrace.length == 0) {
+      return;
+    }
+    stackBuilder.setLength(0);
+    // Stack traces start at the innermost frame, collapsed stacks start at the outermost
+    for (int i = stackTrace.length - 1; i >= 0; i--) {
+      stackBuilder.append(stackTrace[i].getClassName()).append('.').append(stackTrace[i].getMethodName());
+      if (i > 0) {
+        stackBuilder.append(';');
+      }
+    }
+    sampleCountsByStack.merge(stackBuilder.toString(), 1, Integer::sum);
+    hasNewSamples = true;
+  }
+
+  /**
+   * Writes every sample so far to a temporary file and moves it over the last one, so the file
+   * is never half written if the robot turns off.
+   */
+  private static void writeSamples() {
+    List<String> lines = new ArrayList<>(sampleCountsByStack.size());
+    for (Map.Entry<String, Integer> entry : sampleCountsByStack.entrySet()) {
+      lines.add(entry.getKey() + " " + entry.getValue());
+    }
+    Path directory = Filesystem.getOperatingDirectory().toPath();
+    Path temporaryFile = directory.resolve(FILE_NAME + ".tmp");
+    try {
+      Files.write(temporaryFile, lines);
+      Files.move(temporaryFile, directory.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+      hasNewSamples = false;
+    } catch (IOException e) {
+      DriverStation.reportWarning("Couldn't write the loop overrun stacks: " + e.getMessage(), false);
+    }
+  }
+}
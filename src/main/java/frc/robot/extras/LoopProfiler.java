@@ -0,0 +1,159 @@
+package frc.robot.extras;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+/**
+ * Finds out which parts of the robot loop use up the 20 ms. Subsystems that extend
+ * ProfiledSubsystemBase time their periodic with a LoopTimer. Commands are timed from the
+ * scheduler's hooks, so every scheduled command is timed without being wrapped. The hooks only
+ * run after a command's initialize, execute or end, so each one records the time since the last
+ * thing that was timed. That means a command's execute also has the scheduler's bookkeeping and
+ * the isFinished of the command before it in it, and its end has its own isFinished. Once every
+ * PUBLISH_PERIOD_SECONDS the p50, p99 and max of each one since the last publish are put on the
+ * dashboard under "Loop Times", which also writes them to the on-robot log. With allocation
+ * tracking on, the bytes each one allocates go under "Loop Allocations" too. Everything here
+ * runs on the main loop.
+ */
+public final class LoopProfiler {
+
+  private static final double PUBLISH_PERIOD_SECONDS = 1;
+
+  private static final Map<String, LoopTimer> timersByName = new HashMap<>();
+  private static final List<LoopTimer> timers = new ArrayList<>();
+  private static double lastPublishTimestamp = 0;
+
+  private static final LoopTimer schedulerTimer = getTimer("CommandScheduler.run()");
+  private static final LoopTimer buttonLoopTimer = getTimer("Button bindings");
+  // Weak so commands that are made while the robot runs, like the auto-align trajectories, don't stay in memory
+  private static final Map<Command, CommandTimers> commandTimers = new WeakHashMap<>();
+  private static boolean isSchedulerRunning = false;
+  private static long markNanoseconds;
+  private static long markAllocatedBytes;
+
+  private LoopProfiler() {}
+
+  /**
+   * Gets the timer with this name, making it the first time. Get timers when things are
+   * constructed, not every loop. Everything timed with the same name shares a histogram.
+   */
+  public static LoopTimer getTimer(String name) {
+    LoopTimer timer = timersByName.get(name);
+    if (timer == null) {
+      timer = new LoopTimer(name);
+      timersByName.put(name, timer);
+      timers.add(timer);
+    }
+    return timer;
+  }
+
+  /**
+   * Turns on counting the bytes allocated by everything that's timed. This is a diagnostic for
+   * finding garbage that causes GC pauses, it adds a little time to every timer.
+   */
+  public static void enableAllocationTracking() {
+    AllocationCounter.enable();
+  }
+
+  /**
+   * Times every command the scheduler runs from now on. Call this after the button bindings are
+   * made, so the time spent polling them is timed on its own instead of going to a command.
+   */
+  public static void profileCommands() {
+    CommandScheduler commandScheduler = CommandScheduler.getInstance();
+    commandScheduler.onCommandInitialize(command -> recordSinceMark(getCommandTimers(command).initializeTimer));
+    commandScheduler.onCommandExecute(command -> recordSinceMark(getCommandTimers(command).executeTimer));
+    commandScheduler.onCommandFinish(command -> recordSinceMark(getCommandTimers(command).endTimer));
+    commandScheduler.onCommandInterrupt(command -> recordSinceMark(getCommandTimers(command).endTimer));
+    commandScheduler.getDefaultButtonLoop().bind(() -> recordSinceMark(buttonLoopTimer));
+  }
+
+  /**
+   * Runs the CommandScheduler and times it. Call this instead of CommandScheduler.run().
+   */
+  public static void runScheduler() {
+    schedulerTimer.start();
+    isSchedulerRunning = true;
+    mark();
+    CommandScheduler.getInstance().run();
+    isSchedulerRunning = false;
+    schedulerTimer.stop();
+  }
+
+  /**
+   * Starts the time the next scheduler hook records from. Call this at the end of anything the
+   * scheduler runs that is timed some other way, like a subsystem's periodic.
+   */
+  public static void mark() {
+    if (AllocationCounter.isEnabled()) {
+      markAllocatedBytes = AllocationCounter.readAllocatedBytes();
+    }
+    markNanoseconds = System.nanoTime();
+  }
+
+  /**
+   * Records the time, and the bytes allocated when allocation tracking is on, since the last
+   * mark, and marks. Commands scheduled or canceled outside of runScheduler, like the auto in
+   * autonomousInit, aren't timed because there's no mark from right before them.
+   */
+  private static void recordSinceMark(LoopTimer timer) {
+    if (!isSchedulerRunning) {
+      return;
+    }
+    long nanoseconds = System.nanoTime();
+    timer.record(nanoseconds - markNanoseconds);
+    if (AllocationCounter.isEnabled()) {
+      long allocatedBytes = AllocationCounter.readAllocatedBytes();
+      timer.recordAllocatedBytes(AllocationCounter.getAllocatedBytesBetween(markAllocatedBytes, allocatedBytes));
+      markAllocatedBytes = allocatedBytes;
+    }
+    markNanoseconds = System.nanoTime();
+  }
+
+  private static CommandTimers getCommandTimers(Command command) {
+    CommandTimers timers = commandTimers.get(command);
+    if (timers == null) {
+      timers = new CommandTimers(command.getName());
+      commandTimers.put(command, timers);
+    }
+    return timers;
+  }
+
+  /**
+   * Publishes every timer if it's been PUBLISH_PERIOD_SECONDS since the last time. This is
+   * called at the end of every loop.
+   */
+  public static void publishPeriodically() {
+    double timestamp = Timer.getFPGATimestamp();
+    if (timestamp - lastPublishTimestamp < PUBLISH_PERIOD_SECONDS) {
+      return;
+    }
+    lastPublishTimestamp = timestamp;
+    for (int i = 0; i < timers.size(); i++) {
+      timers.get(i).publishAndReset();
+    }
+  }
+
+  /**
+   * The timers for one command, so the hooks don't build the names every loop.
+   */
+  private static final class CommandTimers {
+    private final LoopTimer initializeTimer;
+    private final LoopTimer executeTimer;
+    // Also has isFinished in it, since the hooks can't tell them apart
+    private final LoopTimer endTimer;
+
+    private CommandTimers(String name) {
+      initializeTimer = getTimer(name + ".initialize()");
+      executeTimer = getTimer(name + ".execute()");
+      endTimer = getTimer(name + ".end()");
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package frc.robot.extras;
+
+/**
+ * Times one piece of the robot loop, like a subsystem's periodic or a command's execute, and
+ * keeps the times in a fixed size histogram so recording one doesn't allocate. The buckets are
+ * 1 microsecond wide up to 16 microseconds, and after that each power of 2 is split into 16
+ * buckets, so a percentile is within about 6% of the real time. When allocation tracking is on,
+ * it also counts the bytes allocated between start and stop. Get these from LoopProfiler, and
+ * only use them from the main loop.
+ */
+public final class LoopTimer {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  // Up to 2^21 microseconds, about 2 seconds, anything longer goes in the last bucket
+  private static final int MAX_EXPONENT = 21;
+  private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+  private final String name;
+  private final String p50Key;
+  private final String p99Key;
+  private final String maxKey;
+  private final String bytesPerCallKey;
+  private final String maxBytesKey;
+
+  private final int[] bucketCounts = new int[BUCKET_COUNT];
+  private int count = 0;
+  private long maxMicroseconds = 0;
+  private long startNanoseconds;
+
+  private long startAllocatedBytes;
+  private int allocationCount = 0;
+  private long totalAllocatedBytes = 0;
+  private long maxAllocatedBytes = 0;
+
+  LoopTimer(String name) {
+    this.name = name;
+    p50Key = "Loop Times/" + name + "/p50 ms";
+    p99Key = "Loop Times/" + name + "/p99 ms";
+    maxKey = "Loop Times/" + name + "/max ms";
+    bytesPerCallKey = "Loop Allocations/" + name + "/bytes per call";
+    maxBytesKey = "Loop Allocations/" + name + "/max bytes";
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Starts timing. Every start needs a stop after it.
+   */
+  public void start() {
+    if (AllocationCounter.isEnabled()) {
+      startAllocatedBytes = AllocationCounter.readAllocatedBytes();
+    }
+    startNanoseconds = System.nanoTime();
+  }
+
+  /**
+   * Stops timing and records how long it's been since start.
+   */
+  public void stop() {
+    record(System.nanoTime() - startNanoseconds);
+    if (AllocationCounter.isEnabled()) {
+      recordAllocatedBytes(
+        AllocationCounter.getAllocatedBytesBetween(startAllocatedBytes, AllocationCounter.readAllocatedBytes()));
+    }
+  }
+
+  /**
+   * Records a time.
+   * @param nanoseconds How long it took.
+   */
+  public void record(long nanoseconds) {
+    long microseconds = Math.max(nanoseconds / 1000, 0);
+    bucketCounts[getBucket(microseconds)]++;
+    count++;
+    maxMicroseconds = Math.max(maxMicroseconds, microseconds);
+  }
+
+  /**
+   * Records the bytes allocated by one call.
+   */
+  void recordAllocatedBytes(long allocatedBytes) {
+    allocationCount++;
+    totalAllocatedBytes += allocatedBytes;
+    maxAllocatedBytes = Math.max(maxAllocatedBytes, allocatedBytes);
+  }
+
+  /**
+   * Puts the p50, p99 and max since the last publish on the dashboard, which also logs them,
+   * and starts over. When allocation tracking is on, the average and max bytes allocated per
+   * call are put too. Nothing is put if nothing was recorded.
+   */
+  void publishAndReset() {
+    if (count == 0) {
+      return;
+    }
+    SmartDashboardLogger.infoNumber(p50Key, getPercentileMicroseconds(0.5) / 1000.0);
+    SmartDashboardLogger.infoNumber(p99Key, getPercentileMicroseconds(0.99) / 1000.0);
+    SmartDashboardLogger.infoNumber(maxKey, maxMicroseconds / 1000.0);
+    if (allocationCount > 0) {
+      SmartDashboardLogger.infoNumber(bytesPerCallKey, (double) totalAllocatedBytes / allocationCount);
+      SmartDashboardLogger.infoNumber(maxBytesKey, maxAllocatedBytes);
+    }
+
+    for (int i = 0; i < bucketCounts.length; i++) {
+      bucketCounts[i] = 0;
+    }
+    count = 0;
+    maxMicroseconds = 0;
+    allocationCount = 0;
+    totalAllocatedBytes = 0;
+    maxAllocatedBytes = 0;
+  }
+
+  /**
+   * Returns the time that the given fraction of the recorded times are at or under, rounded up
+   * to the top of its bucket and never more than the max.
+   */
+  long getPercentileMicroseconds(double percentile) {
+    long targetCount = Math.max((long) Math.ceil(count * percentile), 1);
+    long cumulativeCount = 0;
+    for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+      cumulativeCount += bucketCounts[bucket];
+      if (cumulativeCount >= targetCount) {
+        return Math.min(getBucketUpperBound(bucket), maxMicroseconds);
+      }
+    }
+    return maxMicroseconds;
+  }
+
+  private static int getBucket(long microseconds) {
+    if (microseconds < SUB_BUCKET_COUNT) {
+      return (int) microseconds;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(microseconds);
+    if (exponent > MAX_EXPONENT) {
+      return BUCKET_COUNT - 1;
+    }
+    int subBucket = (int) (microseconds >> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  private static long getBucketUpperBound(int bucket) {
+    if (bucket < SUB_BUCKET_COUNT) {
+      return bucket;
+    }
+    int exponent = bucket / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+    int subBucket = bucket % SUB_BUCKET_COUNT;
+    long bucketWidth = 1L << (exponent - SUB_BUCKET_BITS);
+    return ((SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS)) + bucketWidth - 1;
+  }
+}
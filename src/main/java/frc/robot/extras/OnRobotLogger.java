@@ -0,0 +1,249 @@
+package frc.robot.extras;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Writes values to the on-robot data log so they can be looked at after a match, even if the
+ * dashboard lost its connection. Values are copied into a fixed number of reusable records and
+ * written to the DataLog on a background thread, so logging doesn't allocate or call into the
+ * native log from the main loop, and the entries are started on that thread too. If the writer
+ * falls behind and every record is in use, new values are dropped and counted instead of
+ * blocking the loop. Values that can't be logged, like an array that's too long or a key that
+ * was already logged as another type, are dropped and counted the same way so logging never
+ * crashes the robot.
+ * Nothing is logged until start is called.
+ */
+public final class OnRobotLogger {
+
+  // How many values can be waiting to be written at once, a few loops worth of everything we log
+  private static final int RECORD_CAPACITY = 1024;
+  // The longest number array that can be logged
+  public static final int MAX_ARRAY_LENGTH = 16;
+
+  private static volatile boolean isRunning = false;
+  private static DataLog dataLog;
+
+  private static final Map<String, LogEntry> entries = new ConcurrentHashMap<>();
+  private static final BlockingQueue<LogRecord> freeRecords = new ArrayBlockingQueue<>(RECORD_CAPACITY);
+  private static final BlockingQueue<LogRecord> pendingRecords = new ArrayBlockingQueue<>(RECORD_CAPACITY);
+  private static final AtomicLong droppedRecordCount = new AtomicLong();
+
+  private OnRobotLogger() {}
+
+  /**
+   * Starts the data log (in /home/lvuser/logs, or a USB stick if one is plugged in) and the
+   * thread that writes to it. The driver station and joystick data is logged too.
+   */
+  public static synchronized void start() {
+    if (isRunning) {
+      return;
+    }
+    DataLogManager.start();
+    // Everything we want is logged through here, logging all of NetworkTables would log it twice
+    DataLogManager.logNetworkTables(false);
+    dataLog = DataLogManager.getLog();
+    DriverStation.startDataLog(dataLog);
+
+    for (int i = 0; i < RECORD_CAPACITY; i++) {
+      freeRecords.add(new LogRecord());
+    }
+    Thread writerThread = new Thread(OnRobotLogger::writeRecords, "Data log writer");
+    writerThread.setDaemon(true);
+    writerThread.start();
+    isRunning = true;
+  }
+
+  /**
+   * Returns if start has been called, so callers can skip building values that won't be logged.
+   */
+  public static boolean isRunning() {
+    return isRunning;
+  }
+
+  /**
+   * Returns how many values were dropped because the writer thread fell behind or they couldn't be logged.
+   */
+  public static long getDroppedRecordCount() {
+    return droppedRecordCount.get();
+  }
+
+  /**
+   * Logs a number.
+   * @param key The name of the entry in the log.
+   */
+  public static void logNumber(String key, double value) {
+    LogRecord record = getFreeRecord(key, LogType.DOUBLE);
+    if (record != null) {
+      record.numbers[0] = value;
+      pendingRecords.add(record);
+    }
+  }
+
+  /**
+   * Logs an array of numbers. The values are copied, so the array can be reused.
+   * @param key The name of the entry in the log.
+   * @param values The values, at most MAX_ARRAY_LENGTH of them. Longer arrays are dropped.
+   */
+  public static void logNumbers(String key, double[] values) {
+    if (values.length > MAX_ARRAY_LENGTH) {
+      droppedRecordCount.incrementAndGet();
+      return;
+    }
+    LogRecord record = getFreeRecord(key, LogType.DOUBLE_ARRAY);
+    if (record != null) {
+      System.arraycopy(values, 0, record.numbers, 0, values.length);
+      record.numberCount = values.length;
+      pendingRecords.add(record);
+    }
+  }
+
+  /**
+   * Logs a boolean.
+   * @param key The name of the entry in the log.
+   */
+  public static void logBoolean(String key, boolean value) {
+    LogRecord record = getFreeRecord(key, LogType.BOOLEAN);
+    if (record != null) {
+      record.booleanValue = value;
+      pendingRecords.add(record);
+    }
+  }
+
+  /**
+   * Logs a string.
+   * @param key The name of the entry in the log.
+   */
+  public static void logString(String key, String value) {
+    LogRecord record = getFreeRecord(key, LogType.STRING);
+    if (record != null) {
+      record.stringValue = value;
+      pendingRecords.add(record);
+    }
+  }
+
+  /**
+   * Takes a record to fill in and timestamps it.
+   * @return The record, or null if the logger isn't running, the key is already logged as another
+   * type, or every record is in use.
+   */
+  private static LogRecord getFreeRecord(String key, LogType type) {
+    if (!isRunning) {
+      return null;
+    }
+    LogEntry entry = getEntry(key, type);
+    LogRecord record = entry == null ? null : freeRecords.poll();
+    if (record == null) {
+      droppedRecordCount.incrementAndGet();
+      return null;
+    }
+    record.entry = entry;
+    record.timestampMicroseconds = RobotController.getFPGATime();
+    return record;
+  }
+
+  /**
+   * Gets the log entry for a key, making it the first time the key is logged. The writer thread
+   * starts it in the data log.
+   * @return The entry, or null if the key is already logged as another type.
+   */
+  private static LogEntry getEntry(String key, LogType type) {
+    LogEntry entry = entries.get(key);
+    if (entry == null) {
+      entry = entries.computeIfAbsent(key, newKey -> new LogEntry(newKey, type));
+    }
+    return entry.type == type ? entry : null;
+  }
+
+  /**
+   * Runs on the writer thread, copies every pending record into the data log and frees it.
+   */
+  private static void writeRecords() {
+    // DataLog writes whole arrays, so the values are copied into an array of the right length
+    double[][] arraysByLength = new double[MAX_ARRAY_LENGTH + 1][];
+    for (int length = 0; length <= MAX_ARRAY_LENGTH; length++) {
+      arraysByLength[length] = new double[length];
+    }
+
+    while (true) {
+      LogRecord record;
+      try {
+        record = pendingRecords.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+
+      if (!record.entry.isStarted) {
+        record.entry.handle = dataLog.start(record.entry.key, record.entry.type.typeString);
+        record.entry.isStarted = true;
+      }
+      int entry = record.entry.handle;
+      long timestamp = record.timestampMicroseconds;
+      switch (record.entry.type) {
+        case DOUBLE:
+          dataLog.appendDouble(entry, record.numbers[0], timestamp);
+          break;
+        case DOUBLE_ARRAY:
+          double[] values = arraysByLength[record.numberCount];
+          System.arraycopy(record.numbers, 0, values, 0, record.numberCount);
+          dataLog.appendDoubleArray(entry, values, timestamp);
+          break;
+        case BOOLEAN:
+          dataLog.appendBoolean(entry, record.booleanValue, timestamp);
+          break;
+        case STRING:
+          dataLog.appendString(entry, record.stringValue, timestamp);
+          record.stringValue = null;
+          break;
+      }
+      freeRecords.add(record);
+    }
+  }
+
+  private enum LogType {
+    DOUBLE("double"), DOUBLE_ARRAY("double[]"), BOOLEAN("boolean"), STRING("string");
+
+    private final String typeString;
+
+    LogType(String typeString) {
+      this.typeString = typeString;
+    }
+  }
+
+  /**
+   * An entry in the data log and the type of the values logged to it.
+   */
+  private static final class LogEntry {
+    private final String key;
+    private final LogType type;
+    // Only used by the writer thread, which starts the entry when it writes the first value
+    private boolean isStarted = false;
+    private int handle;
+
+    private LogEntry(String key, LogType type) {
+      this.key = key;
+      this.type = type;
+    }
+  }
+
+  /**
+   * One value waiting to be written. These are reused, so they are only made when the logger starts.
+   */
+  private static final class LogRecord {
+    private LogEntry entry;
+    private long timestampMicroseconds;
+    private final double[] numbers = new double[MAX_ARRAY_LENGTH];
+    private int numberCount;
+    private boolean booleanValue;
+    private String stringValue;
+  }
+}
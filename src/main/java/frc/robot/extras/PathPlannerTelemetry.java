@@ -0,0 +1,94 @@
+package frc.robot.extras;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import com.pathplanner.lib.server.PathPlannerServer;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants.TrajectoryConstants;
+
+/**
+ * Sends path following data to the PathPlanner app without slowing down the main loop. Nothing
+ * is sent unless startServer was called, the active path is only sent once per trajectory, and
+ * the target and actual poses are sent at most every PATH_FOLLOWING_TELEMETRY_PERIOD_SECONDS.
+ * The socket writes happen on a background thread.
+ */
+public final class PathPlannerTelemetry {
+
+  private static final ExecutorService sendExecutor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread sendThread = new Thread(runnable, "PathPlanner telemetry");
+    sendThread.setDaemon(true);
+    return sendThread;
+  });
+
+  private static volatile boolean isServerRunning = false;
+  private static PathPlannerTrajectory lastSentTrajectory = null;
+  private static double lastPathFollowingDataTimestamp = Double.NEGATIVE_INFINITY;
+
+  // Only the newest poses are sent, if the send thread falls behind the older ones are dropped
+  private static final AtomicReference<Pose2d[]> pendingPathFollowingData = new AtomicReference<>();
+  private static final AtomicBoolean isSendQueued = new AtomicBoolean(false);
+
+  private PathPlannerTelemetry() {}
+
+  /**
+   * Starts the PathPlanner server so the app can connect to the robot. Without this, none of the
+   * telemetry is made or sent.
+   * @param port The port the PathPlanner app connects to, usually 5811.
+   */
+  public static void startServer(int port) {
+    if (!isServerRunning) {
+      PathPlannerServer.startServer(port);
+      isServerRunning = true;
+    }
+  }
+
+  /**
+   * Sends the trajectory that's being followed, unless it was the last one sent.
+   */
+  public static void sendActivePath(PathPlannerTrajectory trajectory) {
+    if (!isServerRunning || trajectory == lastSentTrajectory) {
+      return;
+    }
+    lastSentTrajectory = trajectory;
+    sendExecutor.execute(() -> PathPlannerServer.sendActivePath(trajectory.getStates()));
+  }
+
+  /**
+   * Sends where the robot should be and where it is, if it's been long enough since the last time.
+   * @param desiredState The state the robot is trying to follow. Its values are copied, so it can be reused.
+   * @param currentPose The robot's current pose.
+   */
+  public static void sendPathFollowingData(PathPlannerState desiredState, Pose2d currentPose) {
+    if (!isServerRunning) {
+      return;
+    }
+    double timestamp = Timer.getFPGATimestamp();
+    if (timestamp - lastPathFollowingDataTimestamp < TrajectoryConstants.PATH_FOLLOWING_TELEMETRY_PERIOD_SECONDS) {
+      return;
+    }
+    lastPathFollowingDataTimestamp = timestamp;
+
+    pendingPathFollowingData.set(new Pose2d[] {
+      new Pose2d(desiredState.poseMeters.getTranslation(), desiredState.holonomicRotation),
+      currentPose
+    });
+    if (isSendQueued.compareAndSet(false, true)) {
+      sendExecutor.execute(PathPlannerTelemetry::sendPendingPathFollowingData);
+    }
+  }
+
+  private static void sendPendingPathFollowingData() {
+    isSendQueued.set(false);
+    Pose2d[] poses = pendingPathFollowingData.getAndSet(null);
+    if (poses != null) {
+      PathPlannerServer.sendPathFollowingData(poses[0], poses[1]);
+    }
+  }
+}
@@ -1,6 +1,15 @@
 package frc.robot.extras;
 
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTableType;
+import edu.wpi.first.networktables.StringPublisher;
 
 import static java.util.Objects.isNull;
 
@@ -15,6 +24,25 @@ public final class SmartDashboardLogger {
      */
     private static final SmartDashboardLogLevel systemLogLevel = SmartDashboardLogLevel.DEBUG;
 
+    private static final NetworkTable smartDashboardTable = NetworkTableInstance.getDefault().getTable("SmartDashboard");
+
+    /*
+     * One publisher per key, made the first time the key is put. Keys are usually string literals,
+     * so looking one up doesn't have to hash the key again.
+     */
+    private static final Map<String, DashboardEntry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Checks if values at this logLevel are put in the table. Use this to skip building a value
+     * that won't be logged.
+     *
+     * @param logLevel the log level to check
+     * @return True if logLevel >= {@code systemLogLevel}
+     */
+    public static boolean isEnabled(final SmartDashboardLogLevel logLevel) {
+        return isNull(logLevel) || logLevel.getLevel() >= systemLogLevel.getLevel();
+    }
+
     /**
      * Put a string in the table at logLevel {@link SmartDashboardLogLevel#DEBUG}
      *
@@ -59,6 +87,58 @@ public final class SmartDashboardLogger {
         return putString(SmartDashboardLogLevel.ERROR, key, value);
     }
 
+    /**
+     * Put an object's string in the table at logLevel {@link SmartDashboardLogLevel#DEBUG}. The
+     * string is only made if the object isn't equal to the last one put at this key, so it
+     * should be immutable, like a Pose2d.
+     *
+     * @param key   the key to be assigned to
+     * @param value the value whose toString will be assigned
+     * @return False if the table key already exists with a different type
+     */
+    public static boolean debugString(final String key, final Object value) {
+        return putString(SmartDashboardLogLevel.DEBUG, key, value);
+    }
+
+    /**
+     * Put an object's string in the table at logLevel {@link SmartDashboardLogLevel#INFO}. The
+     * string is only made if the object isn't equal to the last one put at this key, so it
+     * should be immutable, like a Pose2d.
+     *
+     * @param key   the key to be assigned to
+     * @param value the value whose toString will be assigned
+     * @return False if the table key already exists with a different type
+     */
+    public static boolean infoString(final String key, final Object value) {
+        return putString(SmartDashboardLogLevel.INFO, key, value);
+    }
+
+    /**
+     * Put an object's string in the table at logLevel {@link SmartDashboardLogLevel#WARN}. The
+     * string is only made if the object isn't equal to the last one put at this key, so it
+     * should be immutable, like a Pose2d.
+     *
+     * @param key   the key to be assigned to
+     * @param value the value whose toString will be assigned
+     * @return False if the table key already exists with a different type
+     */
+    public static boolean warnString(final String key, final Object value) {
+        return putString(SmartDashboardLogLevel.WARN, key, value);
+    }
+
+    /**
+     * Put an object's string in the table at logLevel {@link SmartDashboardLogLevel#ERROR}. The
+     * string is only made if the object isn't equal to the last one put at this key, so it
+     * should be immutable, like a Pose2d.
+     *
+     * @param key   the key to be assigned to
+     * @param value the value whose toString will be assigned
+     * @return False if the table key already exists with a different type
+     */
+    public static boolean errorString(final String key, final Object value) {
+        return putString(SmartDashboardLogLevel.ERROR, key, value);
+    }
+
     /**
      * Put a string in the table if logLevel is null or if logLevel >= {@code systemLogLevel}.
      *
@@ -67,9 +147,10 @@ public final class SmartDashboardLogger {
      * @param value    the value that will be assigned
      * @return False if the table key already exists with a different type
      */
-    private static boolean putString(final SmartDashboardLogLevel logLevel, final String key, final String value) {
-        if (isNull(logLevel) || logLevel.getLevel() >= systemLogLevel.getLevel()) {
-            return SmartDashboard.putString(key, value);
+    private static boolean putString(final SmartDashboardLogLevel logLevel, final String key, final Object value) {
+        if (isEnabled(logLevel)) {
+            final DashboardEntry entry = getEntry(key, NetworkTableType.kString);
+            return !isNull(entry) && entry.putString(value);
         }
         return true;
     }
@@ -126,8 +207,9 @@ public final class SmartDashboardLogger {
      * @return False if the table key already exists with a different type
      */
     private static boolean putBoolean(final SmartDashboardLogLevel logLevel, final String key, final boolean value) {
-        if (isNull(logLevel) || logLevel.getLevel() >= systemLogLevel.getLevel()) {
-            return SmartDashboard.putBoolean(key, value);
+        if (isEnabled(logLevel)) {
+            final DashboardEntry entry = getEntry(key, NetworkTableType.kBoolean);
+            return !isNull(entry) && entry.putBoolean(value);
         }
         return true;
     }
@@ -184,11 +266,89 @@ public final class SmartDashboardLogger {
      * @return False if the table key already exists with a different type
      */
     private static boolean putNumber(final SmartDashboardLogLevel logLevel, final String key, final double value) {
-        if (isNull(logLevel) || logLevel.getLevel() >= systemLogLevel.getLevel()) {
-            return SmartDashboard.putNumber(key, value);
+        if (isEnabled(logLevel)) {
+            final DashboardEntry entry = getEntry(key, NetworkTableType.kDouble);
+            return !isNull(entry) && entry.putNumber(value);
         }
 
         return true;
     }
 
+    /**
+     * Gets the cached entry for a key, making its publisher if this is the first time it's put.
+     *
+     * @param key  the key of the entry
+     * @param type the type that will be put at the key
+     * @return The entry, or null if the key already exists with a different type
+     */
+    private static DashboardEntry getEntry(final String key, final NetworkTableType type) {
+        DashboardEntry entry = entries.get(key);
+        if (isNull(entry)) {
+            final NetworkTableType existingType = smartDashboardTable.getTopic(key).getType();
+            if (existingType != NetworkTableType.kUnassigned && existingType != type) {
+                return null;
+            }
+            entry = entries.computeIfAbsent(key, newKey -> new DashboardEntry(newKey, type));
+        }
+        return entry.type == type ? entry : null;
+    }
+
+    /**
+     * A typed publisher for one key and the last value put in it, so unchanged values aren't sent or
+     * logged again. Changed values are also written to the on-robot log.
+     */
+    private static final class DashboardEntry {
+
+        private final NetworkTableType type;
+        private final String logKey;
+        private final DoublePublisher numberPublisher;
+        private final BooleanPublisher booleanPublisher;
+        private final StringPublisher stringPublisher;
+
+        private boolean hasValue = false;
+        private double lastNumber;
+        private boolean lastBoolean;
+        private Object lastObject;
+
+        private DashboardEntry(final String key, final NetworkTableType type) {
+            this.type = type;
+            logKey = "SmartDashboard/" + key;
+            numberPublisher = type == NetworkTableType.kDouble ? smartDashboardTable.getDoubleTopic(key).publish() : null;
+            booleanPublisher = type == NetworkTableType.kBoolean ? smartDashboardTable.getBooleanTopic(key).publish() : null;
+            stringPublisher = type == NetworkTableType.kString ? smartDashboardTable.getStringTopic(key).publish() : null;
+        }
+
+        private synchronized boolean putNumber(final double value) {
+            // Compares the bits so NaN counts as unchanged
+            if (!hasValue || Double.doubleToLongBits(value) != Double.doubleToLongBits(lastNumber)) {
+                numberPublisher.set(value);
+                OnRobotLogger.logNumber(logKey, value);
+                lastNumber = value;
+                hasValue = true;
+            }
+            return true;
+        }
+
+        private synchronized boolean putBoolean(final boolean value) {
+            if (!hasValue || value != lastBoolean) {
+                booleanPublisher.set(value);
+                OnRobotLogger.logBoolean(logKey, value);
+                lastBoolean = value;
+                hasValue = true;
+            }
+            return true;
+        }
+
+        private synchronized boolean putString(final Object value) {
+            if (!hasValue || !Objects.equals(value, lastObject)) {
+                final String string = String.valueOf(value);
+                stringPublisher.set(string);
+                OnRobotLogger.logString(logKey, string);
+                lastObject = value;
+                hasValue = true;
+            }
+            return true;
+        }
+    }
+
 }
@@ -2,6 +2,9 @@ package frc.robot.extras;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
@@ -21,6 +24,20 @@ public class SmarterDashboardRegistry {
   // true/false
   private static boolean isConeMode = NodeAndModeRegistry.isConeMode();
 
+  // The poses and orientation are put every loop, so they keep their publishers
+  private static final NetworkTable smartDashboardTable = NetworkTableInstance.getDefault().getTable("SmartDashboard");
+  private static final DoubleArrayPublisher posePublisher = smartDashboardTable.getDoubleArrayTopic("botPose").publish();
+  private static final DoubleArrayPublisher limelightPosePublisher =
+    smartDashboardTable.getDoubleArrayTopic("limelightPose").publish();
+  private static final DoubleArrayPublisher orientationPublisher = smartDashboardTable.getDoubleArrayTopic("botAngle").publish();
+
+  static {
+    // Only changes are sent after this, so the starting values are sent once here
+    posePublisher.set(pose);
+    limelightPosePublisher.set(limelightPose);
+    orientationPublisher.set(orientation);
+  }
+
   private SmarterDashboardRegistry() {}
 
   /**
@@ -71,10 +88,10 @@ public class SmarterDashboardRegistry {
    * @param robotPose the position of the robot
    */
   public static void setPose(Pose2d robotPose) {
-    pose[0] = robotPose.getX();
-    pose[1] = robotPose.getY();
-    pose[2] = robotPose.getRotation().getDegrees();
-    SmartDashboard.putNumberArray("botPose", pose);
+    if (setValues(pose, robotPose.getX(), robotPose.getY(), robotPose.getRotation().getDegrees())) {
+      posePublisher.set(pose);
+      OnRobotLogger.logNumbers("SmarterDashboard/botPose", pose);
+    }
   }
 
   /**
@@ -92,10 +109,10 @@ public class SmarterDashboardRegistry {
    * @param yaw the pitch (pitch and yaw are swapped)
    */
   public static void setOrientation(double pitch, double roll, double yaw) {
-    orientation[0] = pitch;
-    orientation[1] = roll;
-    orientation[2] = yaw;
-    SmartDashboard.putNumberArray("botAngle", orientation);
+    if (setValues(orientation, pitch, roll, yaw)) {
+      orientationPublisher.set(orientation);
+      OnRobotLogger.logNumbers("SmarterDashboard/botAngle", orientation);
+    }
   }
 
   /**
@@ -103,10 +120,10 @@ public class SmarterDashboardRegistry {
    * @param limelightPose_ the estimated pose from the limelight
    */
   public static void setLimelightPose(Pose2d limelightPose_) {
-    limelightPose[0] = limelightPose_.getX();
-    limelightPose[1] = limelightPose_.getY();
-    limelightPose[2] = limelightPose_.getRotation().getDegrees();
-    SmartDashboard.putNumberArray("limelightPose", limelightPose);
+    if (setValues(limelightPose, limelightPose_.getX(), limelightPose_.getY(), limelightPose_.getRotation().getDegrees())) {
+      limelightPosePublisher.set(limelightPose);
+      OnRobotLogger.logNumbers("SmarterDashboard/limelightPose", limelightPose);
+    }
   }
 
   /**
@@ -116,4 +133,16 @@ public class SmarterDashboardRegistry {
   public static Pose2d getLimelightPose() {
     return new Pose2d(limelightPose[0], limelightPose[1], Rotation2d.fromDegrees(limelightPose[2]));
   }
+
+  /**
+   * Copies three values into an array
+   * @return if any of the values changed, so the array needs to be sent again
+   */
+  private static boolean setValues(double[] values, double first, double second, double third) {
+    boolean hasChanged = values[0] != first || values[1] != second || values[2] != third;
+    values[0] = first;
+    values[1] = second;
+    values[2] = third;
+    return hasChanged;
+  }
 }
@@ -0,0 +1,124 @@
+package frc.robot.extras;
+
+import java.util.List;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.trajectory.Trajectory.State;
+
+/**
+ * Samples a PathPlanner trajectory the same way PathPlannerTrajectory.sample does, but for time
+ * that only moves forward. It remembers which states it was between last time, so each sample
+ * only has to step forward a state or two instead of searching, and it fills in the same
+ * PathPlannerState every time instead of making a new one.
+ */
+public final class TrajectorySampler {
+
+  // PathPlannerTrajectory.sample uses the later state instead of interpolating between states closer than this
+  private static final double MINIMUM_INTERPOLATION_DURATION_SECONDS = 1e-3;
+
+  private final List<State> states;
+  private final PathPlannerState sampledState = new PathPlannerState();
+
+  // The index of the state at or after the last sample time
+  private int cursor = 1;
+
+  /**
+   * Makes a sampler for the trajectory, starting at its beginning.
+   */
+  public TrajectorySampler(PathPlannerTrajectory trajectory) {
+    states = trajectory.getStates();
+  }
+
+  /**
+   * Moves the sampler back to the start of the trajectory.
+   */
+  public void reset() {
+    cursor = 1;
+  }
+
+  /**
+   * Returns the state of the trajectory at the time. The returned state is reused, so it's only
+   * valid until the next call to sample. If the time goes backwards, the sampler steps back to it.
+   * @param timeSeconds The time since the start of the trajectory.
+   */
+  public PathPlannerState sample(double timeSeconds) {
+    PathPlannerState firstState = (PathPlannerState) states.get(0);
+    PathPlannerState lastState = (PathPlannerState) states.get(states.size() - 1);
+    if (timeSeconds <= firstState.timeSeconds || states.size() == 1) {
+      return copyInto(firstState);
+    } else if (timeSeconds >= lastState.timeSeconds) {
+      return copyInto(lastState);
+    }
+
+    // The cursor ends up at the first state at or after the time, the same state PathPlannerTrajectory.sample finds
+    while (cursor > 1 && states.get(cursor - 1).timeSeconds >= timeSeconds) {
+      cursor--;
+    }
+    while (states.get(cursor).timeSeconds < timeSeconds) {
+      cursor++;
+    }
+
+    PathPlannerState previousState = (PathPlannerState) states.get(cursor - 1);
+    PathPlannerState nextState = (PathPlannerState) states.get(cursor);
+    double stateDuration = nextState.timeSeconds - previousState.timeSeconds;
+    if (stateDuration < MINIMUM_INTERPOLATION_DURATION_SECONDS) {
+      return copyInto(nextState);
+    }
+    interpolate(previousState, nextState, (timeSeconds - previousState.timeSeconds) / stateDuration);
+    return sampledState;
+  }
+
+  /**
+   * Linearly interpolates between two states into the sampled state, matching PathPlannerState.interpolate.
+   */
+  private void interpolate(PathPlannerState startState, PathPlannerState endState, double t) {
+    sampledState.timeSeconds = lerp(startState.timeSeconds, endState.timeSeconds, t);
+    sampledState.velocityMetersPerSecond = lerp(startState.velocityMetersPerSecond, endState.velocityMetersPerSecond, t);
+    sampledState.accelerationMetersPerSecondSq =
+      lerp(startState.accelerationMetersPerSecondSq, endState.accelerationMetersPerSecondSq, t);
+    sampledState.angularVelocityRadPerSec = lerp(startState.angularVelocityRadPerSec, endState.angularVelocityRadPerSec, t);
+    sampledState.curvatureRadPerMeter = lerp(startState.curvatureRadPerMeter, endState.curvatureRadPerMeter, t);
+    sampledState.holonomicAngularVelocityRadPerSec =
+      lerp(startState.holonomicAngularVelocityRadPerSec, endState.holonomicAngularVelocityRadPerSec, t);
+
+    // Pose2d and Rotation2d can't be changed, so these are the only objects made per sample
+    Pose2d startPose = startState.poseMeters;
+    Pose2d endPose = endState.poseMeters;
+    sampledState.poseMeters = new Pose2d(
+      lerp(startPose.getX(), endPose.getX(), t),
+      lerp(startPose.getY(), endPose.getY(), t),
+      new Rotation2d(lerpAngle(startPose.getRotation().getRadians(), endPose.getRotation().getRadians(), t))
+    );
+    sampledState.holonomicRotation = new Rotation2d(
+      lerpAngle(startState.holonomicRotation.getRadians(), endState.holonomicRotation.getRadians(), t)
+    );
+  }
+
+  private PathPlannerState copyInto(PathPlannerState state) {
+    sampledState.timeSeconds = state.timeSeconds;
+    sampledState.velocityMetersPerSecond = state.velocityMetersPerSecond;
+    sampledState.accelerationMetersPerSecondSq = state.accelerationMetersPerSecondSq;
+    sampledState.poseMeters = state.poseMeters;
+    sampledState.curvatureRadPerMeter = state.curvatureRadPerMeter;
+    sampledState.angularVelocityRadPerSec = state.angularVelocityRadPerSec;
+    sampledState.holonomicRotation = state.holonomicRotation;
+    sampledState.holonomicAngularVelocityRadPerSec = state.holonomicAngularVelocityRadPerSec;
+    return sampledState;
+  }
+
+  private static double lerp(double startValue, double endValue, double t) {
+    return startValue + (endValue - startValue) * t;
+  }
+
+  /**
+   * Interpolates between two angles the short way around, like Rotation2d's minus and plus.
+   */
+  private static double lerpAngle(double startRadians, double endRadians, double t) {
+    return startRadians + MathUtil.angleModulus(endRadians - startRadians) * t;
+  }
+}
@@ -0,0 +1,180 @@
+package frc.robot.extras;
+
+public final class UniformGridInterpolator {
+
+  /**
+   * How the lookup table is filled in between its points when it's resampled.
+   */
+  public enum Kernel {
+    /** Straight lines between the points, the same as the linear interpolators. */
+    LINEAR,
+    /** A smooth curve through the points that never overshoots them, so increasing data stays increasing. */
+    MONOTONE_CUBIC
+  }
+
+  private final double minimumXValue;
+  private final double maximumXValue;
+  private final double inverseGridSpacing;
+  private final int gridPointCount;
+  private final int outputCount;
+  // gridValues[i * outputCount + j] is output j at grid point i
+  private final double[] gridValues;
+
+  /**
+   * Resamples a lookup table onto evenly spaced points so that lookups are just index math, no
+   * searching. The curve between the table's points is calculated once here with the kernel, and
+   * lookups linearly interpolate between the grid points, so a finer grid follows the kernel closer.
+   * @param lookupTable an array containing {x, y1, y2, ...yn} points, the x values must be in ascending order.
+   * @param gridPointCount How many evenly spaced points to resample the table to, at least 2.
+   * @param kernel How to fill in the table between its points.
+   */
+  public UniformGridInterpolator(double[][] lookupTable, int gridPointCount, Kernel kernel) {
+    if (lookupTable.length == 0 || lookupTable[0].length < 2) {
+      throw new IllegalArgumentException("The lookup table needs at least one row with an x and a y value");
+    }
+    if (gridPointCount < 2) {
+      throw new IllegalArgumentException("The grid needs at least 2 points");
+    }
+
+    this.gridPointCount = gridPointCount;
+    outputCount = lookupTable[0].length - 1;
+    minimumXValue = lookupTable[0][0];
+    maximumXValue = lookupTable[lookupTable.length - 1][0];
+    double gridSpacing = (maximumXValue - minimumXValue) / (gridPointCount - 1);
+    inverseGridSpacing = gridSpacing == 0 ? 0 : 1 / gridSpacing;
+    gridValues = new double[gridPointCount * outputCount];
+
+    for (int j = 0; j < outputCount; j++) {
+      double[] xValues = new double[lookupTable.length];
+      double[] yValues = new double[lookupTable.length];
+      for (int i = 0; i < lookupTable.length; i++) {
+        if (i > 0 && lookupTable[i][0] < lookupTable[i - 1][0]) {
+          throw new IllegalArgumentException("The lookup table's x values must be in ascending order");
+        }
+        xValues[i] = lookupTable[i][0];
+        yValues[i] = lookupTable[i][j + 1];
+      }
+
+      double[] tangents = kernel == Kernel.MONOTONE_CUBIC ? getMonotoneTangents(xValues, yValues) : null;
+      int segment = 0;
+      for (int i = 0; i < gridPointCount; i++) {
+        // The last point is set exactly so rounding can't push it past the end of the table
+        double x = i == gridPointCount - 1 ? maximumXValue : minimumXValue + i * gridSpacing;
+        while (segment < xValues.length - 2 && x >= xValues[segment + 1]) {
+          segment++;
+        }
+        gridValues[i * outputCount + j] = evaluate(xValues, yValues, tangents, segment, x);
+      }
+    }
+  }
+
+  /**
+   * Returns the first interpolated value from the lookup table corresponding to the given input value.
+   */
+  public double getLookupValue(double inputXValue) {
+    return getLookupValue(inputXValue, 0);
+  }
+
+  /**
+   * Returns one interpolated value from the lookup table corresponding to the given input value.
+   * Values outside of the table are clamped to its ends.
+   * @param outputIndex Which value to return, 0 being the table's second column.
+   */
+  public double getLookupValue(double inputXValue, int outputIndex) {
+    double gridPosition = getGridPosition(inputXValue);
+    int gridIndex = Math.min((int) gridPosition, gridPointCount - 2);
+    double fraction = gridPosition - gridIndex;
+    double lowerValue = gridValues[gridIndex * outputCount + outputIndex];
+    double upperValue = gridValues[(gridIndex + 1) * outputCount + outputIndex];
+    return lowerValue + (upperValue - lowerValue) * fraction;
+  }
+
+  /**
+   * Writes every interpolated value from the lookup table corresponding to the given input value into
+   * the output array.
+   * @param output An array at least as long as the table's rows minus 1.
+   */
+  public void getLookupValues(double inputXValue, double[] output) {
+    double gridPosition = getGridPosition(inputXValue);
+    int gridIndex = Math.min((int) gridPosition, gridPointCount - 2);
+    double fraction = gridPosition - gridIndex;
+    int lowerStart = gridIndex * outputCount;
+    int upperStart = lowerStart + outputCount;
+    for (int j = 0; j < outputCount; j++) {
+      output[j] = gridValues[lowerStart + j] + (gridValues[upperStart + j] - gridValues[lowerStart + j]) * fraction;
+    }
+  }
+
+  /**
+   * Returns where the input value is on the grid, clamped from 0 to the last grid point.
+   */
+  private double getGridPosition(double inputXValue) {
+    if (inputXValue <= minimumXValue) {
+      return 0;
+    } else if (inputXValue >= maximumXValue) {
+      return gridPointCount - 1;
+    }
+    return (inputXValue - minimumXValue) * inverseGridSpacing;
+  }
+
+  /**
+   * Evaluates the table's curve at x in the specified segment, linearly if there are no tangents.
+   */
+  private static double evaluate(double[] xValues, double[] yValues, double[] tangents, int segment, double x) {
+    if (xValues.length == 1) {
+      return yValues[0];
+    }
+
+    double segmentWidth = xValues[segment + 1] - xValues[segment];
+    if (segmentWidth == 0) {
+      return yValues[segment + 1];
+    }
+    double t = Math.max(0, Math.min(1, (x - xValues[segment]) / segmentWidth));
+    if (tangents == null) {
+      return yValues[segment] + (yValues[segment + 1] - yValues[segment]) * t;
+    }
+
+    // Cubic Hermite basis functions
+    double tSquared = t * t;
+    double tCubed = tSquared * t;
+    return (2 * tCubed - 3 * tSquared + 1) * yValues[segment]
+      + (tCubed - 2 * tSquared + t) * segmentWidth * tangents[segment]
+      + (-2 * tCubed + 3 * tSquared) * yValues[segment + 1]
+      + (tCubed - tSquared) * segmentWidth * tangents[segment + 1];
+  }
+
+  /**
+   * Calculates the slope of the curve at each of the table's points so the cubic doesn't overshoot
+   * (Fritsch-Carlson, using the weighted harmonic mean of the neighboring slopes). Points where the
+   * data changes direction get a slope of 0.
+   */
+  private static double[] getMonotoneTangents(double[] xValues, double[] yValues) {
+    int pointCount = xValues.length;
+    double[] tangents = new double[pointCount];
+    if (pointCount < 2) {
+      return tangents;
+    }
+
+    double[] segmentWidths = new double[pointCount - 1];
+    double[] secants = new double[pointCount - 1];
+    for (int i = 0; i < pointCount - 1; i++) {
+      segmentWidths[i] = xValues[i + 1] - xValues[i];
+      secants[i] = segmentWidths[i] == 0 ? 0 : (yValues[i + 1] - yValues[i]) / segmentWidths[i];
+    }
+
+    tangents[0] = secants[0];
+    tangents[pointCount - 1] = secants[pointCount - 2];
+    for (int i = 1; i < pointCount - 1; i++) {
+      if (secants[i - 1] * secants[i] <= 0) {
+        tangents[i] = 0;
+      } else {
+        double previousWidth = segmentWidths[i - 1];
+        double nextWidth = segmentWidths[i];
+        // Weighted harmonic mean of the neighboring secants
+        tangents[i] = 3 * (previousWidth + nextWidth)
+          / ((2 * nextWidth + previousWidth) / secants[i - 1] + (nextWidth + 2 * previousWidth) / secants[i]);
+      }
+    }
+    return tangents;
+  }
+}
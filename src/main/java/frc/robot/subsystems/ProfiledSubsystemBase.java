@@ -0,0 +1,28 @@
+package frc.robot.subsystems;
+
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.extras.LoopProfiler;
+import frc.robot.extras.LoopTimer;
+
+/**
+ * A SubsystemBase whose periodic is timed by LoopProfiler under "[class name].periodic()".
+ * Subsystems extend this and put their periodic code in profiledPeriodic.
+ */
+public abstract class ProfiledSubsystemBase extends SubsystemBase {
+
+  private final LoopTimer periodicTimer = LoopProfiler.getTimer(getClass().getSimpleName() + ".periodic()");
+
+  @Override
+  public final void periodic() {
+    periodicTimer.start();
+    profiledPeriodic();
+    periodicTimer.stop();
+    // So the next command timed by the scheduler hooks doesn't include this periodic
+    LoopProfiler.mark();
+  }
+
+  /**
+   * Called once per scheduler run, in place of periodic.
+   */
+  protected abstract void profiledPeriodic();
+}
@@ -0,0 +1,43 @@
+package frc.robot.subsystems.arm;
+
+import com.ctre.phoenix.motorcontrol.NeutralMode;
+
+/**
+ * The arm's hardware. The real robot uses ArmIOTalonFX, and ArmIOSim simulates it so the arm
+ * code can run without a robot. The simulation's physical constants are kept in ArmIOSim
+ * instead of Constants, since nothing else uses them.
+ */
+public interface ArmIO {
+
+  /**
+   * Reads the arm's sensors into the snapshot. This is called once at the start of every loop.
+   * ArmIOSim steps its simulation forward by the FPGA time since the last call here.
+   */
+  void updateInputs(ArmInputs inputs);
+
+  /**
+   * Moves the arm to an angle with the motor controller's motion profile.
+   * @param desiredAngleDegrees The angle in degrees, 0 being straight down.
+   */
+  void setRotation(double desiredAngleDegrees);
+
+  /**
+   * Runs the rotation motors at a percent output, from -1 to 1.
+   */
+  void setRotationOutput(double output);
+
+  /**
+   * Runs the extension motor at a percent output, from -1 to 1.
+   */
+  void setExtensionOutput(double output);
+
+  /**
+   * Sets the current extension to 0.
+   */
+  void resetExtensionEncoder();
+
+  /**
+   * Sets the neutral mode of the extension motor.
+   */
+  void setExtensionNeutralMode(NeutralMode neutralMode);
+}
@@ -0,0 +1,97 @@
+package frc.robot.subsystems.arm;
+
+import com.ctre.phoenix.motorcontrol.NeutralMode;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import frc.robot.Constants.ArmConstants;
+import frc.robot.Constants.Conversions;
+
+/**
+ * A simulated arm. The rotation follows the same motion profile the Talon FX's motion magic
+ * would, or moves at a speed proportional to its output, and the extension motor is simulated
+ * as a Falcon 500 through its gearbox and spool. Both stay inside the soft limits.
+ */
+public class ArmIOSim implements ArmIO {
+
+  private static final double ROTATION_DEGREES_PER_SECOND_AT_FULL_OUTPUT = 180;
+  private static final double EXTENSION_MOMENT_OF_INERTIA = 0.01;
+
+  // Motion magic's velocity and acceleration are in encoder units per 100ms
+  private static final TrapezoidProfile.Constraints ROTATION_CONSTRAINTS = new TrapezoidProfile.Constraints(
+    ArmConstants.ROTATION_MAX_VELOCITY_ENCODER_UNITS * 10 / Conversions.DEGREES_TO_CANCODER_UNITS,
+    ArmConstants.ROTATION_MAX_ACCELERATION_ENCODER_UNITS * 10 / Conversions.DEGREES_TO_CANCODER_UNITS
+  );
+  private static final double MIN_ROTATION_DEGREES = ArmConstants.MIN_ROTATION_ENCODER_UNITS / Conversions.DEGREES_TO_CANCODER_UNITS;
+  private static final double MAX_ROTATION_DEGREES = ArmConstants.MAX_ROTATION_ENCODER_UNITS / Conversions.DEGREES_TO_CANCODER_UNITS;
+
+  private final DCMotorSim extensionSim =
+    new DCMotorSim(DCMotor.getFalcon500(1), ArmConstants.EXTENSION_MOTOR_GEAR_RATIO, EXTENSION_MOMENT_OF_INERTIA);
+
+  private TrapezoidProfile.State rotationState = new TrapezoidProfile.State(ArmConstants.STOWED_ROTATION, 0);
+  private final TrapezoidProfile.State rotationGoal = new TrapezoidProfile.State();
+  private boolean isRotationProfiled = false;
+  private double rotationOutput = 0;
+  private double extensionVolts = 0;
+  private double lastUpdateTimestampSeconds = Timer.getFPGATimestamp();
+
+  @Override
+  public void updateInputs(ArmInputs inputs) {
+    double timestampSeconds = Timer.getFPGATimestamp();
+    double stepSeconds = timestampSeconds - lastUpdateTimestampSeconds;
+    lastUpdateTimestampSeconds = timestampSeconds;
+    if (isRotationProfiled) {
+      rotationState = new TrapezoidProfile(ROTATION_CONSTRAINTS, rotationGoal, rotationState).calculate(stepSeconds);
+    } else {
+      double rotationSpeed = rotationOutput * ROTATION_DEGREES_PER_SECOND_AT_FULL_OUTPUT;
+      rotationState = new TrapezoidProfile.State(rotationState.position + rotationSpeed * stepSeconds, rotationSpeed);
+    }
+    if (rotationState.position < MIN_ROTATION_DEGREES || rotationState.position > MAX_ROTATION_DEGREES) {
+      rotationState = new TrapezoidProfile.State(MathUtil.clamp(rotationState.position, MIN_ROTATION_DEGREES, MAX_ROTATION_DEGREES), 0);
+    }
+
+    extensionSim.setInputVoltage(extensionVolts);
+    extensionSim.update(stepSeconds);
+    // The extension motor is inverted, so the arm extends when the motor's position goes down
+    double spoolRadiusMeters = ArmConstants.EXTENSION_SPOOL_DIAMETER / 2;
+    double extensionMeters = -extensionSim.getAngularPositionRad() * spoolRadiusMeters;
+    if (extensionMeters < 0 || extensionMeters > ArmConstants.MAX_EXTENSION_METERS) {
+      extensionMeters = MathUtil.clamp(extensionMeters, 0, ArmConstants.MAX_EXTENSION_METERS);
+      extensionSim.setState(-extensionMeters / spoolRadiusMeters, 0);
+    }
+
+    inputs.rotationDegrees = rotationState.position;
+    inputs.rotationSpeedDegreesPerSecond = rotationState.velocity;
+    inputs.extensionMeters = extensionMeters;
+    inputs.extensionSpeedMetersPerSecond = -extensionSim.getAngularVelocityRadPerSec() * spoolRadiusMeters;
+  }
+
+  @Override
+  public void setRotation(double desiredAngleDegrees) {
+    rotationGoal.position = MathUtil.clamp(desiredAngleDegrees, MIN_ROTATION_DEGREES, MAX_ROTATION_DEGREES);
+    rotationGoal.velocity = 0;
+    isRotationProfiled = true;
+  }
+
+  @Override
+  public void setRotationOutput(double output) {
+    rotationOutput = MathUtil.clamp(output, -1, 1);
+    isRotationProfiled = false;
+  }
+
+  @Override
+  public void setExtensionOutput(double output) {
+    extensionVolts = MathUtil.clamp(output, -1, 1) * 12;
+  }
+
+  @Override
+  public void resetExtensionEncoder() {
+    extensionSim.setState(0, extensionSim.getAngularVelocityRadPerSec());
+  }
+
+  @Override
+  public void setExtensionNeutralMode(NeutralMode neutralMode) {}
+}
@@ -0,0 +1,119 @@
+package frc.robot.subsystems.arm;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.InvertType;
+import com.ctre.phoenix.motorcontrol.NeutralMode;
+import com.ctre.phoenix.motorcontrol.TalonFXFeedbackDevice;
+import com.ctre.phoenix.motorcontrol.can.WPI_TalonFX;
+import com.ctre.phoenix.sensors.AbsoluteSensorRange;
+import com.ctre.phoenix.sensors.CANCoderStatusFrame;
+import com.ctre.phoenix.sensors.SensorInitializationStrategy;
+import com.ctre.phoenix.sensors.WPI_CANCoder;
+
+import frc.robot.Constants.ArmConstants;
+import frc.robot.Constants.Conversions;
+import frc.robot.Constants.HardwareConstants;
+
+/**
+ * The arm with two Falcon 500s rotating it, a CANCoder on the rotation axis and a Falcon 500 extending it.
+ */
+public class ArmIOTalonFX implements ArmIO {
+
+  private final WPI_CANCoder rotationEncoder;
+  private final WPI_TalonFX leaderRotationMotor;
+  private final WPI_TalonFX followerRotationMotor;
+  private final WPI_TalonFX extensionMotor;
+  // private final DoubleSolenoid extensionLockSolenoid;
+
+  /** 
+   * Creates the arm's hardware. 
+   * Feed Forward Gain, Velocity Gain, and Acceleration Gain need to be tuned in constants
+   * Use 1/Max Acceleration for acc. gain
+   * Use 1/Max Velocity for velocity gain
+   * Calculate torque required for feed forward gain
+   * Tune all parameters
+  */
+  public ArmIOTalonFX() {
+    rotationEncoder = new WPI_CANCoder(ArmConstants.ROTATION_ENCODER_ID, HardwareConstants.CANIVORE_CAN_BUS_STRING);
+    leaderRotationMotor = new WPI_TalonFX(ArmConstants.LEADER_ROTATION_MOTOR_ID, HardwareConstants.CANIVORE_CAN_BUS_STRING);
+    followerRotationMotor = new WPI_TalonFX(ArmConstants.FOLLOWER_ROTATION_MOTOR_ID, HardwareConstants.CANIVORE_CAN_BUS_STRING);
+    extensionMotor = new WPI_TalonFX(ArmConstants.EXTENSION_MOTOR_ID);
+    // extensionLockSolenoid = new DoubleSolenoid(Constants.PNEUMATICS_MODULE_TYPE, ArmConstants.EXTENSION_LOCK_ENGAGED_ID, ArmConstants.EXTENSION_LOCK_DISENGAGED_ID);
+    
+    rotationEncoder.configFactoryDefault(HardwareConstants.TIMEOUT_MS);
+    rotationEncoder.configMagnetOffset(ArmConstants.ROTATION_ENCODER_OFFSET, HardwareConstants.TIMEOUT_MS);
+    rotationEncoder.configAbsoluteSensorRange(AbsoluteSensorRange.Unsigned_0_to_360, HardwareConstants.TIMEOUT_MS);
+    rotationEncoder.setStatusFramePeriod(CANCoderStatusFrame.SensorData, 10, HardwareConstants.TIMEOUT_MS);
+    rotationEncoder.configSensorInitializationStrategy(SensorInitializationStrategy.BootToAbsolutePosition, HardwareConstants.TIMEOUT_MS);
+
+    leaderRotationMotor.configFactoryDefault(HardwareConstants.TIMEOUT_MS);
+    leaderRotationMotor.configRemoteFeedbackFilter(rotationEncoder, 0, 0);
+    leaderRotationMotor.configSelectedFeedbackSensor(TalonFXFeedbackDevice.RemoteSensor0, 0, 0);
+    leaderRotationMotor.config_kP(0, ArmConstants.ROTATION_P, HardwareConstants.TIMEOUT_MS);
+    leaderRotationMotor.config_kI(0, ArmConstants.ROTATION_I, HardwareConstants.TIMEOUT_MS);
+    leaderRotationMotor.config_kD(0, ArmConstants.ROTATION_D, HardwareConstants.TIMEOUT_MS);
+    leaderRotationMotor.configMotionCruiseVelocity(ArmConstants.ROTATION_MAX_VELOCITY_ENCODER_UNITS, HardwareConstants.TIMEOUT_MS);
+    leaderRotationMotor.configMotionAcceleration(ArmConstants.ROTATION_MAX_ACCELERATION_ENCODER_UNITS, HardwareConstants.TIMEOUT_MS);
+    leaderRotationMotor.configMotionSCurveStrength(ArmConstants.ROTATION_SMOOTHING, HardwareConstants.TIMEOUT_MS);
+    leaderRotationMotor.configAllowableClosedloopError(0, ArmConstants.ROTATION_TOLERANCE_ENCODER_UNITS, HardwareConstants.TIMEOUT_MS);
+    leaderRotationMotor.configForwardSoftLimitThreshold(ArmConstants.MAX_ROTATION_ENCODER_UNITS, HardwareConstants.TIMEOUT_MS);
+    leaderRotationMotor.configForwardSoftLimitEnable(true, HardwareConstants.TIMEOUT_MS);
+    leaderRotationMotor.configReverseSoftLimitThreshold(ArmConstants.MIN_ROTATION_ENCODER_UNITS, HardwareConstants.TIMEOUT_MS);
+    leaderRotationMotor.configReverseSoftLimitEnable(true, HardwareConstants.TIMEOUT_MS);
+    leaderRotationMotor.configNeutralDeadband(HardwareConstants.MIN_FALCON_DEADBAND, HardwareConstants.TIMEOUT_MS);
+    // leaderRotationMotor.setStatusFramePeriod(StatusFrame.Status_2_Feedback0, 250, HardwareConstants.TIMEOUT_MS);
+
+    leaderRotationMotor.setInverted(ArmConstants.LEADER_ROTATION_MOTOR_INVERTED);
+    leaderRotationMotor.setNeutralMode(NeutralMode.Brake);
+
+    followerRotationMotor.configFactoryDefault(HardwareConstants.TIMEOUT_MS);
+    followerRotationMotor.setInverted(InvertType.OpposeMaster);
+    followerRotationMotor.setNeutralMode(NeutralMode.Coast);
+    followerRotationMotor.setSensorPhase(true);
+    // followerRotationMotor.setStatusFramePeriod(StatusFrame.Status_2_Feedback0, 250);
+    followerRotationMotor.follow(leaderRotationMotor);
+
+    extensionMotor.configFactoryDefault(HardwareConstants.TIMEOUT_MS);
+    extensionMotor.setInverted(ArmConstants.EXTENSION_MOTOR_INVERTED);
+    extensionMotor.setNeutralMode(NeutralMode.Brake);
+    extensionMotor.configNeutralDeadband(HardwareConstants.MIN_FALCON_DEADBAND, HardwareConstants.TIMEOUT_MS);
+    extensionMotor.configReverseSoftLimitThreshold(ArmConstants.MAX_EXTENSION_METERS * ArmConstants.EXTENSION_METERS_TO_MOTOR_POS, HardwareConstants.TIMEOUT_MS);
+    extensionMotor.configReverseSoftLimitEnable(true, HardwareConstants.TIMEOUT_MS);
+  }
+
+  @Override
+  public void updateInputs(ArmInputs inputs) {
+    inputs.rotationDegrees = rotationEncoder.getAbsolutePosition();
+    inputs.rotationSpeedDegreesPerSecond = rotationEncoder.getVelocity();
+    inputs.extensionMeters = -1 * extensionMotor.getSelectedSensorPosition() * ArmConstants.EXTENSION_MOTOR_POS_TO_METERS;
+    // Convert motor rotation units (2048 for 1 full rotation) per 100ms to meters per second
+    inputs.extensionSpeedMetersPerSecond = 
+      -extensionMotor.getSelectedSensorVelocity() * ArmConstants.EXTENSION_MOTOR_POS_TO_METERS * 10.0;
+  }
+
+  @Override
+  public void setRotation(double desiredAngleDegrees) {
+    leaderRotationMotor.set(ControlMode.MotionMagic, desiredAngleDegrees * Conversions.DEGREES_TO_CANCODER_UNITS);
+    followerRotationMotor.follow(leaderRotationMotor);
+  }
+
+  @Override
+  public void setRotationOutput(double output) {
+    leaderRotationMotor.set(output);
+  }
+
+  @Override
+  public void setExtensionOutput(double output) {
+    extensionMotor.set(output);
+  }
+
+  @Override
+  public void resetExtensionEncoder() {
+    extensionMotor.setSelectedSensorPosition(0);
+  }
+
+  @Override
+  public void setExtensionNeutralMode(NeutralMode neutralMode) {
+    extensionMotor.setNeutralMode(neutralMode);
+  }
+}
@@ -0,0 +1,18 @@
+package frc.robot.subsystems.arm;
+
+/**
+ * A snapshot of the arm's sensor values. It is filled in once at the start of every loop so
+ * the CAN signals are only read once, and so every reading in the same loop agrees.
+ * ArmSubsystemImpl also fills it in when it's made, so there's a valid snapshot before the
+ * first loop runs.
+ */
+public class ArmInputs {
+  /** The angle of the arm in degrees, 0 being straight down. */
+  public double rotationDegrees = 0;
+  /** The rotation speed of the arm in degrees per second. */
+  public double rotationSpeedDegreesPerSecond = 0;
+  /** The extension of the arm in meters. */
+  public double extensionMeters = 0;
+  /** The extension speed of the arm in meters per second. */
+  public double extensionSpeedMetersPerSecond = 0;
+}
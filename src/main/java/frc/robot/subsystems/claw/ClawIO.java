@@ -0,0 +1,41 @@
+package frc.robot.subsystems.claw;
+
+/**
+ * The claw's hardware. The real robot uses ClawIOTalonFX, and ClawIOSim simulates it so the claw
+ * code can run without a robot. The simulation's physical constants are kept in ClawIOSim
+ * instead of Constants, since nothing else uses them.
+ */
+public interface ClawIO {
+
+  /**
+   * Reads the claw's sensors into the snapshot. This is called once at the start of every loop.
+   * ClawIOSim steps its simulation forward by the FPGA time since the last call here.
+   */
+  void updateInputs(ClawInputs inputs);
+
+  /**
+   * Runs the wrist motor at a percent output, from -1 to 1.
+   */
+  void setWristOutput(double output);
+
+  /**
+   * Moves the wrist to an angle with the motor controller's motion profile.
+   * @param angleDegrees The angle in degrees.
+   */
+  void setWristPosition(double angleDegrees);
+
+  /**
+   * Sets the current wrist angle to 0.
+   */
+  void zeroWristEncoder();
+
+  /**
+   * Runs the intake motor at a percent output, from -1 to 1.
+   */
+  void setIntakeOutput(double output);
+
+  /**
+   * Closes or opens the claw.
+   */
+  void setClawClosed(boolean isClosed);
+}
@@ -0,0 +1,71 @@
+package frc.robot.subsystems.claw;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants.ClawConstants;
+
+/**
+ * A simulated claw. The wrist follows the same motion profile the Talon FX's motion magic would,
+ * or moves at a speed proportional to its output, and stays inside the soft limits. The
+ * intake and the claw solenoid don't have sensors, so they aren't simulated.
+ */
+public class ClawIOSim implements ClawIO {
+
+  private static final double WRIST_DEGREES_PER_SECOND_AT_FULL_OUTPUT = 270;
+
+  // Motion magic's velocity and acceleration are in encoder units per 100ms
+  private static final TrapezoidProfile.Constraints WRIST_CONSTRAINTS = new TrapezoidProfile.Constraints(
+    ClawConstants.WRIST_MAX_VELOCITY_ENCODER_UNITS * 10 / ClawConstants.DEG_TO_WRIST_POS,
+    ClawConstants.WRIST_MAX_ACCELERATION_ENCODER_UNITS * 10 / ClawConstants.DEG_TO_WRIST_POS
+  );
+  private static final double MIN_WRIST_DEGREES = ClawConstants.MIN_WRIST_ROTATION_ENCODER_UNITS / ClawConstants.DEG_TO_WRIST_POS;
+  private static final double MAX_WRIST_DEGREES = ClawConstants.MAX_WRIST_ROTATION_ENCODER_UNITS / ClawConstants.DEG_TO_WRIST_POS;
+
+  private TrapezoidProfile.State wristState = new TrapezoidProfile.State();
+  private final TrapezoidProfile.State wristGoal = new TrapezoidProfile.State();
+  private boolean isWristProfiled = false;
+  private double wristOutput = 0;
+  private double lastUpdateTimestampSeconds = Timer.getFPGATimestamp();
+
+  @Override
+  public void updateInputs(ClawInputs inputs) {
+    double timestampSeconds = Timer.getFPGATimestamp();
+    double stepSeconds = timestampSeconds - lastUpdateTimestampSeconds;
+    lastUpdateTimestampSeconds = timestampSeconds;
+    if (isWristProfiled) {
+      wristState = new TrapezoidProfile(WRIST_CONSTRAINTS, wristGoal, wristState).calculate(stepSeconds);
+    } else {
+      double wristSpeed = wristOutput * WRIST_DEGREES_PER_SECOND_AT_FULL_OUTPUT;
+      wristState = new TrapezoidProfile.State(wristState.position + wristSpeed * stepSeconds, wristSpeed);
+    }
+    if (wristState.position < MIN_WRIST_DEGREES || wristState.position > MAX_WRIST_DEGREES) {
+      wristState = new TrapezoidProfile.State(MathUtil.clamp(wristState.position, MIN_WRIST_DEGREES, MAX_WRIST_DEGREES), 0);
+    }
+    inputs.wristAngleDegrees = wristState.position;
+  }
+
+  @Override
+  public void setWristOutput(double output) {
+    wristOutput = MathUtil.clamp(output, -1, 1);
+    isWristProfiled = false;
+  }
+
+  @Override
+  public void setWristPosition(double angleDegrees) {
+    wristGoal.position = MathUtil.clamp(angleDegrees, MIN_WRIST_DEGREES, MAX_WRIST_DEGREES);
+    wristGoal.velocity = 0;
+    isWristProfiled = true;
+  }
+
+  @Override
+  public void zeroWristEncoder() {
+    wristState = new TrapezoidProfile.State(0, wristState.velocity);
+  }
+
+  @Override
+  public void setIntakeOutput(double output) {}
+
+  @Override
+  public void setClawClosed(boolean isClosed) {}
+}
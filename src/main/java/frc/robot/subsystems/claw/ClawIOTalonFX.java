@@ -0,0 +1,99 @@
+package frc.robot.subsystems.claw;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.NeutralMode;
+import com.ctre.phoenix.motorcontrol.StatusFrame;
+import com.ctre.phoenix.motorcontrol.TalonFXFeedbackDevice;
+import com.ctre.phoenix.motorcontrol.can.WPI_TalonFX;
+
+import edu.wpi.first.wpilibj.DoubleSolenoid;
+import frc.robot.Constants.ClawConstants;
+import frc.robot.Constants.HardwareConstants;
+
+/**
+ * The claw on the real robot, a Talon FX on the wrist and the intake and a double solenoid for the claw.
+ */
+public class ClawIOTalonFX implements ClawIO {
+
+  private final WPI_TalonFX wristMotor;
+  private final WPI_TalonFX intakeMotor;
+  private final DoubleSolenoid clawSolenoid;
+
+  public ClawIOTalonFX() {
+    wristMotor = new WPI_TalonFX(ClawConstants.WRIST_MOTOR_ID, HardwareConstants.RIO_CAN_BUS_STRING);
+    intakeMotor = new WPI_TalonFX(ClawConstants.INTAKE_MOTOR_ID, HardwareConstants.RIO_CAN_BUS_STRING);
+
+    wristMotor.configFactoryDefault(HardwareConstants.TIMEOUT_MS);
+    
+    wristMotor.configSelectedFeedbackSensor(TalonFXFeedbackDevice.IntegratedSensor, 0, HardwareConstants.TIMEOUT_MS);
+
+    wristMotor.config_kP(0, ClawConstants.WRIST_P, HardwareConstants.TIMEOUT_MS);
+    wristMotor.config_kI(0, ClawConstants.WRIST_I, HardwareConstants.TIMEOUT_MS);
+    wristMotor.config_kD(0, ClawConstants.WRIST_D, HardwareConstants.TIMEOUT_MS);
+    wristMotor.config_kF(0, ClawConstants.WRIST_F, HardwareConstants.TIMEOUT_MS);
+    wristMotor.configAllowableClosedloopError(0, ClawConstants.WRIST_TOLERANCE, HardwareConstants.TIMEOUT_MS);
+
+    wristMotor.configMotionCruiseVelocity(ClawConstants.WRIST_MAX_VELOCITY_ENCODER_UNITS, HardwareConstants.TIMEOUT_MS);
+    wristMotor.configMotionAcceleration(ClawConstants.WRIST_MAX_ACCELERATION_ENCODER_UNITS, HardwareConstants.TIMEOUT_MS);
+    wristMotor.configMotionSCurveStrength(ClawConstants.WRIST_SMOOTHING, HardwareConstants.TIMEOUT_MS);
+
+
+    wristMotor.configForwardSoftLimitThreshold(ClawConstants.MAX_WRIST_ROTATION_ENCODER_UNITS, HardwareConstants.TIMEOUT_MS);
+    wristMotor.configForwardSoftLimitEnable(true, HardwareConstants.TIMEOUT_MS);
+    wristMotor.configReverseSoftLimitThreshold(ClawConstants.MIN_WRIST_ROTATION_ENCODER_UNITS, HardwareConstants.TIMEOUT_MS);
+    wristMotor.configReverseSoftLimitEnable(true, HardwareConstants.TIMEOUT_MS);
+
+    wristMotor.setInverted(ClawConstants.WRIST_MOTOR_INVERTED);
+    wristMotor.setNeutralMode(NeutralMode.Brake);
+    wristMotor.setSelectedSensorPosition(0);
+    wristMotor.configNeutralDeadband(HardwareConstants.MIN_FALCON_DEADBAND);
+
+    wristMotor.setStatusFramePeriod(StatusFrame.Status_1_General, 250);
+    wristMotor.setStatusFramePeriod(StatusFrame.Status_2_Feedback0, 250);
+
+    intakeMotor.configFactoryDefault(HardwareConstants.TIMEOUT_MS);
+
+    intakeMotor.setInverted(ClawConstants.INTAKE_MOTOR_INVERTED);
+    intakeMotor.setNeutralMode(NeutralMode.Brake);
+    intakeMotor.configNeutralDeadband(HardwareConstants.MIN_FALCON_DEADBAND, HardwareConstants.TIMEOUT_MS);
+
+    intakeMotor.setStatusFramePeriod(StatusFrame.Status_1_General, 250);
+    intakeMotor.setStatusFramePeriod(StatusFrame.Status_2_Feedback0, 250);
+
+    clawSolenoid = new DoubleSolenoid(
+      HardwareConstants.PNEUMATICS_MODULE_TYPE,
+      ClawConstants.CLAW_FORWARD,
+      ClawConstants.CLAW_BACKWARD
+    );
+  }
+
+  @Override
+  public void updateInputs(ClawInputs inputs) {
+    inputs.wristAngleDegrees = wristMotor.getSelectedSensorPosition() * ClawConstants.WRIST_POS_TO_DEG;
+  }
+
+  @Override
+  public void setWristOutput(double output) {
+    wristMotor.set(output);
+  }
+
+  @Override
+  public void setWristPosition(double angleDegrees) {
+    wristMotor.set(ControlMode.MotionMagic, angleDegrees * ClawConstants.DEG_TO_WRIST_POS);
+  }
+
+  @Override
+  public void zeroWristEncoder() {
+    wristMotor.setSelectedSensorPosition(0);
+  }
+
+  @Override
+  public void setIntakeOutput(double output) {
+    intakeMotor.set(output);
+  }
+
+  @Override
+  public void setClawClosed(boolean isClosed) {
+    clawSolenoid.set(isClosed ? DoubleSolenoid.Value.kReverse : DoubleSolenoid.Value.kForward);
+  }
+}
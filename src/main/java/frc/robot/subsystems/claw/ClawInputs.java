@@ -0,0 +1,12 @@
+package frc.robot.subsystems.claw;
+
+/**
+ * A snapshot of the claw's sensor values. It is filled in once at the start of every loop so
+ * the CAN signals are only read once, and so every reading in the same loop agrees.
+ * ClawSubsystemImpl also fills it in when it's made, so there's a valid snapshot before the
+ * first loop runs.
+ */
+public class ClawInputs {
+  /** The angle of the wrist in degrees. */
+  public double wristAngleDegrees = 0;
+}
@@ -74,13 +74,15 @@ public interface DriveSubsystem extends Subsystem {
 
   /**
    * Returns the estimated field-relative pose of the robot. Positive x 
-   * being forward, positive y being left.
+   * being forward, positive y being left. This returns the last published
+   * estimate, so it is cheap and safe to call from any thread.
    */
   Pose2d getPose();
 
   /**
-   * Updates the pose estimator with the pose calculated from the swerve
-   * modules.
+   * Updates the pose estimator with every module position and gyro sample
+   * the odometry thread has taken since the last update. This already runs
+   * every periodic, calling it again only applies any newer samples.
    */
   void addPoseEstimatorSwerveMeasurement();
 
@@ -89,8 +91,10 @@ public interface DriveSubsystem extends Subsystem {
    * tags. How much it contributes to the pose estimation is set by
    * setPoseEstimatorVisionConfidence.
    * @param visionMeasurement The pose calculated from the april tags
-   * @param currentTimeStampSeconds The time stamp in seconds of when the
-   * pose from the april tags was calculated.
+   * @param currentTimeStampSeconds The FPGA time stamp in seconds of when the
+   * frame the pose was calculated from was captured. The odometry since then
+   * is replayed on top of the corrected pose, so call
+   * addPoseEstimatorSwerveMeasurement first to get the newest samples in.
    */
   void addPoseEstimatorVisionMeasurement(Pose2d visionMeasurement,
     double currentTimeStampSeconds);
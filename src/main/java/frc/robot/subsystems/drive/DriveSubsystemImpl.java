@@ -1,122 +1,178 @@
 package frc.robot.subsystems.drive;
 
-import com.kauailabs.navx.frc.AHRS;
+import java.util.concurrent.atomic.AtomicReference;
+
 import edu.wpi.first.math.VecBuilder;
 import edu.wpi.first.math.Vector;
 import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.math.numbers.N3;
 import edu.wpi.first.math.util.Units;
 import edu.wpi.first.wpilibj.DriverStation;
-import edu.wpi.first.wpilibj.SPI;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
-import edu.wpi.first.wpilibj.interfaces.Gyro;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.DriveConstants;
+import frc.robot.extras.OnRobotLogger;
 import frc.robot.extras.SmartDashboardLogger;
 import frc.robot.extras.SmarterDashboardRegistry;
+import frc.robot.subsystems.ProfiledSubsystemBase;
 
-public class DriveSubsystemImpl extends SubsystemBase implements DriveSubsystem {
+public class DriveSubsystemImpl extends ProfiledSubsystemBase implements DriveSubsystem {
 
   // This will stay the same throughout the match. These values are harder to test for and tune, so assume this guess is right.
-  private final Vector<N3> stateStandardDeviations = VecBuilder.fill(0.03, 0.03, Units.degreesToRadians(1));
+  private static final Vector<N3> stateStandardDeviations = VecBuilder.fill(0.03, 0.03, Units.degreesToRadians(1));
   // This will be changed throughout the match depending on how confident we are that the limelight is right.
-  private final Vector<N3> visionMeasurementStandardDeviations = VecBuilder.fill(0.5, 0.5, Units.degreesToRadians(50));
+  private static final Vector<N3> visionMeasurementStandardDeviations = VecBuilder.fill(0.5, 0.5, Units.degreesToRadians(50));
 
   private final SwerveModule frontLeftSwerveModule;
   private final SwerveModule frontRightSwerveModule;
   private final SwerveModule rearLeftSwerveModule;
   private final SwerveModule rearRightSwerveModule;
+  private final SwerveModule[] swerveModules;
+
+  // Preallocated buffers for drive() so the swerve output path doesn't create garbage every loop.
+  // The order is: frontLeft, frontRight, rearLeft, rearRight (same as the kinematics).
+  private final double[] moduleXPositions = new double[4];
+  private final double[] moduleYPositions = new double[4];
+  private final double[] desiredModuleSpeeds = new double[4];
+  private final double[] desiredModuleAngles = new double[4];
+
+  // Module states for the on-robot log, as angle in radians then speed in meters per second for each module
+  private final double[] loggedMeasuredModuleStates = new double[8];
+  private final double[] loggedDesiredModuleStates = new double[8];
 
-  private final Gyro gyro;
+  private final GyroIO gyroIO;
   private final SwerveDrivePoseEstimator odometry;
+  private final OdometryThread odometryThread;
+
+  // Buffers the odometry thread's samples are drained into every loop
+  private final double[] odometryTimestamps = new double[OdometryThread.BUFFER_SIZE];
+  private final double[] odometryHeadingsDegrees = new double[OdometryThread.BUFFER_SIZE];
+  private final double[][] odometryDrivePositionsMeters = new double[OdometryThread.BUFFER_SIZE][4];
+  private final double[][] odometryTurnPositionsDegrees = new double[OdometryThread.BUFFER_SIZE][4];
+  private final SwerveModulePosition[] odometryModulePositions = {
+    new SwerveModulePosition(), new SwerveModulePosition(), new SwerveModulePosition(), new SwerveModulePosition()
+  };
+
+  // The latest estimated pose, published after every pose estimator update so getPose is free to call from any thread
+  private final AtomicReference<Pose2d> latestEstimatedPose = new AtomicReference<>(new Pose2d());
 
-  private double gyroOffset = 0;
+  // Read by the odometry thread
+  private volatile double gyroOffset = 0;
   // private float rollOffset = 0;
   // private float pitchOffset = 0;
   
   /**
    * Creates a new DriveSubsystem.
+   * @param frontLeftModuleIO The front left swerve module's hardware, real or simulated.
+   * @param frontRightModuleIO The front right swerve module's hardware, real or simulated.
+   * @param rearLeftModuleIO The rear left swerve module's hardware, real or simulated.
+   * @param rearRightModuleIO The rear right swerve module's hardware, real or simulated.
+   * @param gyroIO The gyro, real or simulated.
    */
-  public DriveSubsystemImpl() {
-    frontLeftSwerveModule = new SwerveModule(
-      DriveConstants.FRONT_LEFT_DRIVE_MOTOR_ID,
-      DriveConstants.FRONT_LEFT_TURN_MOTOR_ID,
-      DriveConstants.FRONT_LEFT_CANCODER_ID,
-      DriveConstants.FRONT_LEFT_ZERO_ANGLE,
-      DriveConstants.FRONT_LEFT_CANCODER_REVERSED,
-      DriveConstants.FRONT_LEFT_DRIVE_ENCODER_REVERSED,
-      "FL"
-    );
-    
-    frontRightSwerveModule = new SwerveModule(
-      DriveConstants.FRONT_RIGHT_DRIVE_MOTOR_ID,
-      DriveConstants.FRONT_RIGHT_TURN_MOTOR_ID,
-      DriveConstants.FRONT_RIGHT_CANCODER_ID,
-      DriveConstants.FRONT_RIGHT_ZERO_ANGLE,
-      DriveConstants.FRONT_RIGHT_CANCODER_REVERSED,
-      DriveConstants.FRONT_RIGHT_DRIVE_ENCODER_REVERSED,
-      "FR"
-    );
-    
-    rearLeftSwerveModule = new SwerveModule(
-      DriveConstants.REAR_LEFT_DRIVE_MOTOR_ID,
-      DriveConstants.REAR_LEFT_TURN_MOTOR_ID,
-      DriveConstants.REAR_LEFT_CANCODER_ID,
-      DriveConstants.REAR_LEFT_ZERO_ANGLE,
-      DriveConstants.REAR_LEFT_CANCODER_REVERSED,
-      DriveConstants.REAR_LEFT_DRIVE_ENCODER_REVERSED,
-      "RL"
-    );
-    
-    rearRightSwerveModule = new SwerveModule(
-      DriveConstants.REAR_RIGHT_DRIVE_MOTOR_ID,
-      DriveConstants.REAR_RIGHT_TURN_MOTOR_ID,
-      DriveConstants.REAR_RIGHT_CANCODER_ID,
-      DriveConstants.REAR_RIGHT_ZERO_ANGLE,
-      DriveConstants.REAR_RIGHT_CANCODER_REVERSED,
-      DriveConstants.REAR_RIGHT_DRIVE_ENCODER_REVERSED,
-      "RR"
-    );
+  public DriveSubsystemImpl(ModuleIO frontLeftModuleIO, ModuleIO frontRightModuleIO, ModuleIO rearLeftModuleIO,
+    ModuleIO rearRightModuleIO, GyroIO gyroIO) {
+    frontLeftSwerveModule = new SwerveModule(frontLeftModuleIO, "FL");
+    frontRightSwerveModule = new SwerveModule(frontRightModuleIO, "FR");
+    rearLeftSwerveModule = new SwerveModule(rearLeftModuleIO, "RL");
+    rearRightSwerveModule = new SwerveModule(rearRightModuleIO, "RR");
+
+    swerveModules = new SwerveModule[] {
+      frontLeftSwerveModule, frontRightSwerveModule, rearLeftSwerveModule, rearRightSwerveModule
+    };
+    for (int i = 0; i < swerveModules.length; i++) {
+      moduleXPositions[i] = DriveConstants.MODULE_TRANSLATIONS[i].getX();
+      moduleYPositions[i] = DriveConstants.MODULE_TRANSLATIONS[i].getY();
+    }
 
-    gyro = new AHRS(SPI.Port.kMXP);
+    this.gyroIO = gyroIO;
   
-    odometry = new SwerveDrivePoseEstimator(
-      DriveConstants.DRIVE_KINEMATICS,
-      getRotation2d(),
-      getModulePositions(),
-      new Pose2d(), // This is the position for where the robot starts the match
-      stateStandardDeviations,
-      visionMeasurementStandardDeviations
-    );
+    // new Pose2d() is the position for where the robot starts the match
+    Rotation2d initialHeading = getRotation2d();
+    SwerveModulePosition[] initialModulePositions = readModulePositions();
+    PoseEstimatorLog.logReset(new Pose2d(), initialHeading.getDegrees(), initialModulePositions);
+    odometry = createPoseEstimator(initialHeading, initialModulePositions, new Pose2d());
+
+    odometryThread = new OdometryThread(swerveModules, this::getHeading);
+    odometryThread.start();
   }
 
   @SuppressWarnings("ParameterName")
   @Override
   public void drive(double xSpeed, double ySpeed, double rotationSpeed, boolean fieldRelative) {
     // SmartDashboard.putBoolean("isFieldRelative", fieldRelative);
-    SwerveModuleState[] swerveModuleStates = DriveConstants.DRIVE_KINEMATICS.toSwerveModuleStates(
-      fieldRelative
-      ? ChassisSpeeds.fromFieldRelativeSpeeds(xSpeed, ySpeed, rotationSpeed, getFieldRelativeRotation2d())
-      : new ChassisSpeeds(xSpeed, ySpeed, rotationSpeed));
-    SwerveDriveKinematics.desaturateWheelSpeeds(swerveModuleStates, DriveConstants.MAX_SPEED_METERS_PER_SECOND);
-    
-    frontLeftSwerveModule.setDesiredState(swerveModuleStates[0]);
-    frontRightSwerveModule.setDesiredState(swerveModuleStates[1]);
-    rearLeftSwerveModule.setDesiredState(swerveModuleStates[2]);
-    rearRightSwerveModule.setDesiredState(swerveModuleStates[3]);
+    double robotRelativeXSpeed = xSpeed;
+    double robotRelativeYSpeed = ySpeed;
+    if (fieldRelative) {
+      // Same as ChassisSpeeds.fromFieldRelativeSpeeds, rotates the speeds by the negative heading
+      double fieldRelativeHeadingRadians = Math.toRadians(getFieldRelativeHeading());
+      double cos = Math.cos(fieldRelativeHeadingRadians);
+      double sin = Math.sin(fieldRelativeHeadingRadians);
+      robotRelativeXSpeed = xSpeed * cos + ySpeed * sin;
+      robotRelativeYSpeed = -xSpeed * sin + ySpeed * cos;
+    }
+
+    calculateModuleStates(robotRelativeXSpeed, robotRelativeYSpeed, rotationSpeed);
+    desaturateModuleSpeeds(DriveConstants.MAX_SPEED_METERS_PER_SECOND);
+
+    for (int i = 0; i < swerveModules.length; i++) {
+      swerveModules[i].setDesiredState(desiredModuleSpeeds[i], desiredModuleAngles[i]);
+      loggedDesiredModuleStates[2 * i] = desiredModuleAngles[i];
+      loggedDesiredModuleStates[2 * i + 1] = desiredModuleSpeeds[i];
+    }
+    OnRobotLogger.logNumbers("Drive/DesiredModuleStates", loggedDesiredModuleStates);
+  }
+
+  /**
+   * Does the same math as SwerveDriveKinematics.toSwerveModuleStates, but writes the speeds and 
+   * angles into desiredModuleSpeeds and desiredModuleAngles instead of making new objects.
+   * @param xSpeed Robot relative speed in the x direction in meters per second.
+   * @param ySpeed Robot relative speed in the y direction in meters per second.
+   * @param rotationSpeed Angular rate of the robot in radians per second.
+   */
+  private void calculateModuleStates(double xSpeed, double ySpeed, double rotationSpeed) {
+    // Like the kinematics, keeps the last module angles when the robot isn't moving
+    if (xSpeed == 0 && ySpeed == 0 && rotationSpeed == 0) {
+      for (int i = 0; i < desiredModuleSpeeds.length; i++) {
+        desiredModuleSpeeds[i] = 0;
+      }
+      return;
+    }
+
+    for (int i = 0; i < desiredModuleSpeeds.length; i++) {
+      double moduleXSpeed = xSpeed - rotationSpeed * moduleYPositions[i];
+      double moduleYSpeed = ySpeed + rotationSpeed * moduleXPositions[i];
+      desiredModuleSpeeds[i] = Math.hypot(moduleXSpeed, moduleYSpeed);
+      desiredModuleAngles[i] = Math.atan2(moduleYSpeed, moduleXSpeed);
+    }
+  }
+
+  /**
+   * Scales down desiredModuleSpeeds in place if any of them are above the max speed, the same as 
+   * SwerveDriveKinematics.desaturateWheelSpeeds.
+   * @param maxSpeedMetersPerSecond The max speed a module can reach.
+   */
+  private void desaturateModuleSpeeds(double maxSpeedMetersPerSecond) {
+    double highestSpeed = 0;
+    for (double moduleSpeed : desiredModuleSpeeds) {
+      highestSpeed = Math.max(highestSpeed, Math.abs(moduleSpeed));
+    }
+
+    if (highestSpeed > maxSpeedMetersPerSecond) {
+      for (int i = 0; i < desiredModuleSpeeds.length; i++) {
+        desiredModuleSpeeds[i] = desiredModuleSpeeds[i] / highestSpeed * maxSpeedMetersPerSecond;
+      }
+    }
   }
 
   @Override
   public double getHeading() {
     // return (-gyro.getAngle() + this.gyroOffset) % 360;
-    return (-gyro.getAngle() + this.gyroOffset) % 360;
+    return (-gyroIO.getAngleDegrees() + this.gyroOffset) % 360;
   }
 
   @Override
@@ -146,8 +202,15 @@ public class DriveSubsystemImpl extends SubsystemBase implements DriveSubsystem
 
   @Override
   public Rotation2d getFieldRelativeRotation2d() {
+    return Rotation2d.fromDegrees(getFieldRelativeHeading());
+  }
+
+  /**
+   * Returns the heading of the robot in degrees relative to the field from the driver's perspective.
+   */
+  private double getFieldRelativeHeading() {
     // Because the field isn't vertically symmetrical, we have the pose coordinates always start from the bottom left
-    return Rotation2d.fromDegrees((getHeading() + (DriverStation.getAlliance() == Alliance.Blue ? 0 : 180)) % 360);
+    return (getHeading() + (DriverStation.getAlliance() == Alliance.Blue ? 0 : 180)) % 360;
   }
 
   @Override
@@ -155,10 +218,54 @@ public class DriveSubsystemImpl extends SubsystemBase implements DriveSubsystem
     this.gyroOffset = gyroOffset;
   }
 
+  /**
+   * Makes a drive subsystem with simulated swerve modules and a gyro that turns with them, for
+   * running the robot code without a robot.
+   */
+  public static DriveSubsystemImpl createSimulated() {
+    ModuleIOSim frontLeftModuleIO = new ModuleIOSim();
+    ModuleIOSim frontRightModuleIO = new ModuleIOSim();
+    ModuleIOSim rearLeftModuleIO = new ModuleIOSim();
+    ModuleIOSim rearRightModuleIO = new ModuleIOSim();
+    return new DriveSubsystemImpl(
+      frontLeftModuleIO,
+      frontRightModuleIO,
+      rearLeftModuleIO,
+      rearRightModuleIO,
+      new GyroIOSim(frontLeftModuleIO, frontRightModuleIO, rearLeftModuleIO, rearRightModuleIO)
+    );
+  }
+
+  /**
+   * Stops the odometry thread. This is only needed when a simulation throws away a drive
+   * subsystem and makes a new one.
+   */
+  public void close() {
+    odometryThread.close();
+  }
+
+  /**
+   * Makes a pose estimator set up the same way as the robot's, the pose estimator replay uses this too.
+   * @param heading The gyro heading.
+   * @param modulePositions The current positions of the modules.
+   * @param initialPose Where the robot starts.
+   */
+  public static SwerveDrivePoseEstimator createPoseEstimator(Rotation2d heading, SwerveModulePosition[] modulePositions,
+    Pose2d initialPose) {
+    return new SwerveDrivePoseEstimator(
+      DriveConstants.DRIVE_KINEMATICS,
+      heading,
+      modulePositions,
+      initialPose,
+      stateStandardDeviations,
+      visionMeasurementStandardDeviations
+    );
+  }
+
   @Override
   public void zeroHeading() {
     gyroOffset = (DriverStation.getAlliance() == Alliance.Blue ? 0 : 180) % 360;
-    gyro.reset();
+    gyroIO.reset();
   }
 
   @Override
@@ -169,33 +276,76 @@ public class DriveSubsystemImpl extends SubsystemBase implements DriveSubsystem
 
   @Override
   public Pose2d getPose() {
-    return odometry.getEstimatedPosition();
+    return latestEstimatedPose.get();
+  }
+
+  /**
+   * Publishes the pose estimator's current estimate for getPose. Pose2d is immutable, so readers
+   * always get a consistent pose. This needs to be called after anything that changes the estimate.
+   */
+  private void publishEstimatedPose() {
+    latestEstimatedPose.set(odometry.getEstimatedPosition());
   }
 
   @Override
   public void addPoseEstimatorSwerveMeasurement() {
-    odometry.update(
-      getRotation2d(),
-      getModulePositions()
+    int sampleCount = odometryThread.drain(
+      odometryTimestamps, 
+      odometryHeadingsDegrees, 
+      odometryDrivePositionsMeters, 
+      odometryTurnPositionsDegrees
     );
+
+    // Each sample is added at the time it was taken, not when it gets here
+    for (int i = 0; i < sampleCount; i++) {
+      PoseEstimatorLog.logOdometrySample(
+        odometryTimestamps[i], odometryHeadingsDegrees[i], odometryDrivePositionsMeters[i], odometryTurnPositionsDegrees[i]
+      );
+      for (int j = 0; j < odometryModulePositions.length; j++) {
+        odometryModulePositions[j].distanceMeters = odometryDrivePositionsMeters[i][j];
+        odometryModulePositions[j].angle = Rotation2d.fromDegrees(odometryTurnPositionsDegrees[i][j]);
+      }
+      odometry.updateWithTime(
+        odometryTimestamps[i], 
+        Rotation2d.fromDegrees(odometryHeadingsDegrees[i]), 
+        odometryModulePositions
+      );
+    }
+
+    if (sampleCount > 0) {
+      publishEstimatedPose();
+    }
   }
   
   @Override
   public void addPoseEstimatorVisionMeasurement(Pose2d visionMeasurement, double currentTimeStampSeconds) {
+    // This doesn't drain the odometry thread itself, a drain here would log odometry samples after the
+    // vision measurement that the estimator got before it, and the replay would apply them in the wrong order
     odometry.addVisionMeasurement(visionMeasurement, currentTimeStampSeconds);
+    publishEstimatedPose();
     SmarterDashboardRegistry.setLimelightPose(visionMeasurement);
   }
 
   @Override
   public void resetOdometry(Pose2d pose) {
-    odometry.resetPosition(getRotation2d(), getModulePositions(), pose);
+    odometryThread.clear();
+    Rotation2d heading = getRotation2d();
+    SwerveModulePosition[] modulePositions = readModulePositions();
+    PoseEstimatorLog.logReset(pose, heading.getDegrees(), modulePositions);
+    odometry.resetPosition(heading, modulePositions, pose);
+    publishEstimatedPose();
   }
 
   @Override
   public void resetOdometryAndRotation(Pose2d pose, double angle) {
     zeroHeading();
     setGyroOffset(angle);
-    odometry.resetPosition(pose.getRotation(), getModulePositions(), pose);
+    // Samples from before the gyro was reset would undo the reset
+    odometryThread.clear();
+    SwerveModulePosition[] modulePositions = readModulePositions();
+    PoseEstimatorLog.logReset(pose, pose.getRotation().getDegrees(), modulePositions);
+    odometry.resetPosition(pose.getRotation(), modulePositions, pose);
+    publishEstimatedPose();
   }
 
   @Override
@@ -212,6 +362,11 @@ public class DriveSubsystemImpl extends SubsystemBase implements DriveSubsystem
     frontRightSwerveModule.setDesiredState(desiredStates[1]);
     rearLeftSwerveModule.setDesiredState(desiredStates[2]);
     rearRightSwerveModule.setDesiredState(desiredStates[3]);
+    for (int i = 0; i < desiredStates.length; i++) {
+      loggedDesiredModuleStates[2 * i] = desiredStates[i].angle.getRadians();
+      loggedDesiredModuleStates[2 * i + 1] = desiredStates[i].speedMetersPerSecond;
+    }
+    OnRobotLogger.logNumbers("Drive/DesiredModuleStates", loggedDesiredModuleStates);
   }
 
   @Override
@@ -226,10 +381,40 @@ public class DriveSubsystemImpl extends SubsystemBase implements DriveSubsystem
     return swerveModulePositions;
   }
 
+  /**
+   * Reads the module positions directly from the sensors, the same way the odometry thread does.
+   * The estimator is reset from these, because getModulePositions is from the start of the loop
+   * and the samples after a reset are read live, so the distance driven in between would be
+   * counted again.
+   */
+  private SwerveModulePosition[] readModulePositions() {
+    SwerveModulePosition[] modulePositions = new SwerveModulePosition[swerveModules.length];
+    for (int i = 0; i < swerveModules.length; i++) {
+      modulePositions[i] = new SwerveModulePosition(
+        swerveModules[i].readDrivePositionMeters(), Rotation2d.fromDegrees(swerveModules[i].readTurnAbsolutePositionDegrees())
+      );
+    }
+    return modulePositions;
+  }
+
   @Override
-  public void periodic() {
-    Pose2d estimatedPose = odometry.getEstimatedPosition();
-    SmartDashboardLogger.infoString("Estimated pose", estimatedPose.toString());
+  protected void profiledPeriodic() {
+    // Reads every module's CAN signals once, everything else this loop uses these snapshots
+    for (int i = 0; i < swerveModules.length; i++) {
+      swerveModules[i].updateInputs();
+      ModuleInputs moduleInputs = swerveModules[i].getInputs();
+      loggedMeasuredModuleStates[2 * i] = Math.toRadians(moduleInputs.turnAbsolutePositionDegrees);
+      loggedMeasuredModuleStates[2 * i + 1] = moduleInputs.driveVelocityMetersPerSecond;
+    }
+    OnRobotLogger.logNumbers("Drive/MeasuredModuleStates", loggedMeasuredModuleStates);
+    gyroIO.updateInputs();
+
+    // Odometry runs every loop no matter which command is scheduled
+    addPoseEstimatorSwerveMeasurement();
+
+    Pose2d estimatedPose = getPose();
+    PoseEstimatorLog.logEstimatedPose(estimatedPose);
+    SmartDashboardLogger.infoString("Estimated pose", estimatedPose);
     
     // smarterdashboard:
     SmarterDashboardRegistry.setPose(estimatedPose);
@@ -0,0 +1,25 @@
+package frc.robot.subsystems.drive;
+
+/**
+ * The robot's gyro. The real robot uses GyroIONavX, and GyroIOSim works out the heading from
+ * the simulated swerve modules.
+ */
+public interface GyroIO {
+
+  /**
+   * Steps the gyro forward one loop. This is called once at the start of every loop, after the
+   * swerve modules' inputs are updated. Real gyros update themselves, so they don't need to.
+   */
+  default void updateInputs() {}
+
+  /**
+   * Returns the angle of the robot in degrees, clockwise positive like the NavX. This is called
+   * from the odometry thread.
+   */
+  double getAngleDegrees();
+
+  /**
+   * Sets the current angle to 0.
+   */
+  void reset();
+}
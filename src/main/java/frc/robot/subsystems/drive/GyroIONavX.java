@@ -0,0 +1,24 @@
+package frc.robot.subsystems.drive;
+
+import com.kauailabs.navx.frc.AHRS;
+
+import edu.wpi.first.wpilibj.SPI;
+import frc.robot.Constants.DriveConstants;
+
+/**
+ * A NavX plugged into the roboRIO's MXP port.
+ */
+public class GyroIONavX implements GyroIO {
+
+  private final AHRS gyro = new AHRS(SPI.Port.kMXP, DriveConstants.GYRO_UPDATE_RATE_HZ);
+
+  @Override
+  public double getAngleDegrees() {
+    return gyro.getAngle();
+  }
+
+  @Override
+  public void reset() {
+    gyro.reset();
+  }
+}
@@ -0,0 +1,54 @@
+package frc.robot.subsystems.drive;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants.DriveConstants;
+
+/**
+ * A simulated gyro that turns with the simulated swerve modules. Every loop it works out how
+ * fast the robot is rotating from the modules' speeds and angles, the same way odometry does.
+ */
+public class GyroIOSim implements GyroIO {
+
+  private final ModuleIOSim[] moduleIOs;
+  private final SwerveModuleState[] moduleStates = {
+    new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState()
+  };
+
+  // Read by the odometry thread
+  private volatile double angleDegrees = 0;
+  private double lastUpdateTimestampSeconds = Timer.getFPGATimestamp();
+
+  /**
+   * @param moduleIOs The simulated swerve modules in the same order as the kinematics.
+   */
+  public GyroIOSim(ModuleIOSim... moduleIOs) {
+    this.moduleIOs = moduleIOs;
+  }
+
+  @Override
+  public void updateInputs() {
+    double timestampSeconds = Timer.getFPGATimestamp();
+    double stepSeconds = timestampSeconds - lastUpdateTimestampSeconds;
+    lastUpdateTimestampSeconds = timestampSeconds;
+    for (int i = 0; i < moduleIOs.length; i++) {
+      // The modules have already stepped this loop, so this only reads their latest values
+      moduleStates[i].speedMetersPerSecond = moduleIOs[i].getDriveVelocityMetersPerSecond();
+      moduleStates[i].angle = Rotation2d.fromDegrees(moduleIOs[i].readTurnAbsolutePositionDegrees());
+    }
+    double omegaRadiansPerSecond = DriveConstants.DRIVE_KINEMATICS.toChassisSpeeds(moduleStates).omegaRadiansPerSecond;
+    // The NavX is clockwise positive, but the kinematics are counterclockwise positive
+    angleDegrees -= Math.toDegrees(omegaRadiansPerSecond * stepSeconds);
+  }
+
+  @Override
+  public double getAngleDegrees() {
+    return angleDegrees;
+  }
+
+  @Override
+  public void reset() {
+    angleDegrees = 0;
+  }
+}
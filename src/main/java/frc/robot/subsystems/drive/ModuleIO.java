@@ -0,0 +1,42 @@
+package frc.robot.subsystems.drive;
+
+/**
+ * The hardware of one swerve module. The real robot uses ModuleIOTalonFX, and ModuleIOSim
+ * simulates it so the drive code can run without a robot. The simulation's physical constants
+ * are kept in ModuleIOSim instead of Constants, since nothing else uses them.
+ */
+public interface ModuleIO {
+
+  /**
+   * Reads the module's sensors into the snapshot. This is called once at the start of every loop.
+   * ModuleIOSim steps its simulation forward by the FPGA time since the last call here.
+   */
+  void updateInputs(ModuleInputs inputs);
+
+  /**
+   * Reads the distance the drive wheel has travelled in meters. This is called from the odometry thread.
+   */
+  double readDrivePositionMeters();
+
+  /**
+   * Reads the absolute angle of the module in degrees, from -180 to 180. This is called from the odometry thread.
+   */
+  double readTurnAbsolutePositionDegrees();
+
+  /**
+   * Runs the drive wheel at a speed using the motor controller's velocity control.
+   * @param speedMetersPerSecond The speed of the wheel.
+   * @param feedForwardOutput The feedforward added to the velocity control, from -1 to 1.
+   */
+  void setDriveVelocity(double speedMetersPerSecond, double feedForwardOutput);
+
+  /**
+   * Runs the turn motor at a percent output, from -1 to 1.
+   */
+  void setTurnOutput(double output);
+
+  /**
+   * Zeros the drive and turn encoders.
+   */
+  void resetEncoders();
+}
@@ -0,0 +1,131 @@
+package frc.robot.subsystems.drive;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import frc.robot.Constants.ModuleConstants;
+
+/**
+ * A simulated swerve module. The drive wheel follows the characterized DRIVE_S, DRIVE_V and
+ * DRIVE_A model in ModuleConstants, the turn motor is simulated as a Falcon 500 through its
+ * gearbox, and both motors are held to the current limit the real Talon FXs use. The drive
+ * velocity control that the Talon FX does on the real robot is done here with a PID controller.
+ */
+public class ModuleIOSim implements ModuleIO {
+
+  private static final double TURN_GEAR_RATIO = 150.0 / 7.0;
+  private static final double TURN_MOMENT_OF_INERTIA = 0.004;
+  private static final double TURN_CURRENT_LIMIT_AMPS = 60;
+  // Volts per meter per second of drive velocity error
+  private static final double DRIVE_VELOCITY_P = 2;
+
+  // The characterization constants are in percent output, the model works in volts
+  private static final double DRIVE_S_VOLTS = ModuleConstants.DRIVE_S * 12;
+  private static final double DRIVE_V_VOLTS = ModuleConstants.DRIVE_V * 12;
+  private static final double DRIVE_A_VOLTS = ModuleConstants.DRIVE_A * 12;
+  // How fast the difference from the steady state speed dies out, per second
+  private static final double DRIVE_VELOCITY_DECAY_RATE = DRIVE_V_VOLTS / DRIVE_A_VOLTS;
+
+  private static final DCMotor FALCON_500 = DCMotor.getFalcon500(1);
+
+  private final DCMotorSim turnSim = new DCMotorSim(FALCON_500, TURN_GEAR_RATIO, TURN_MOMENT_OF_INERTIA);
+  private final PIDController driveVelocityController = new PIDController(DRIVE_VELOCITY_P, 0, 0);
+
+  private double driveVolts = 0;
+  private double turnVolts = 0;
+
+  // Read by the odometry thread
+  private volatile double drivePositionMeters = 0;
+  private volatile double turnAbsolutePositionDegrees = 0;
+  private double driveVelocityMetersPerSecond = 0;
+  private double lastUpdateTimestampSeconds = Timer.getFPGATimestamp();
+
+  @Override
+  public void updateInputs(ModuleInputs inputs) {
+    double timestampSeconds = Timer.getFPGATimestamp();
+    double stepSeconds = timestampSeconds - lastUpdateTimestampSeconds;
+    lastUpdateTimestampSeconds = timestampSeconds;
+    double wheelRadiusMeters = ModuleConstants.WHEEL_DIAMETER_METERS / 2;
+    double driveMotorSpeedRadiansPerSecond = driveVelocityMetersPerSecond / wheelRadiusMeters * ModuleConstants.DRIVE_GEAR_RATIO;
+    stepDrive(limitVoltage(driveVolts, driveMotorSpeedRadiansPerSecond, ModuleConstants.DRIVE_CURRENT_LIMIT_AMPS), stepSeconds);
+
+    double turnMotorSpeedRadiansPerSecond = turnSim.getAngularVelocityRadPerSec() * TURN_GEAR_RATIO;
+    turnSim.setInputVoltage(limitVoltage(turnVolts, turnMotorSpeedRadiansPerSecond, TURN_CURRENT_LIMIT_AMPS));
+    turnSim.update(stepSeconds);
+    turnAbsolutePositionDegrees = Units.radiansToDegrees(MathUtil.angleModulus(turnSim.getAngularPositionRad()));
+
+    inputs.drivePositionMeters = drivePositionMeters;
+    inputs.driveVelocityMetersPerSecond = driveVelocityMetersPerSecond;
+    inputs.turnAbsolutePositionDegrees = turnAbsolutePositionDegrees;
+  }
+
+  /**
+   * Moves the drive wheel forward by the step. Voltage = S * sign(v) + V * v + A * a, which is
+   * solved exactly over the step so it stays stable, and static friction holds the wheel still
+   * until the voltage gets past DRIVE_S.
+   */
+  private void stepDrive(double volts, double stepSeconds) {
+    double initialVelocity = driveVelocityMetersPerSecond;
+    if (initialVelocity == 0 && Math.abs(volts) <= DRIVE_S_VOLTS) {
+      return;
+    }
+    double frictionVolts = DRIVE_S_VOLTS * Math.signum(initialVelocity != 0 ? initialVelocity : volts);
+    double steadyStateVelocity = (volts - frictionVolts) / DRIVE_V_VOLTS;
+    double finalVelocity = steadyStateVelocity + (initialVelocity - steadyStateVelocity) * Math.exp(-DRIVE_VELOCITY_DECAY_RATE * stepSeconds);
+    // Friction can stop the wheel but can't push it backwards
+    if (initialVelocity != 0 && Math.signum(finalVelocity) != Math.signum(initialVelocity)) {
+      finalVelocity = 0;
+    }
+    drivePositionMeters += (initialVelocity + finalVelocity) / 2 * stepSeconds;
+    driveVelocityMetersPerSecond = finalVelocity;
+  }
+
+  /**
+   * Limits a motor's voltage so its current stays under the current limit, the same way the
+   * Talon FX's current limit does. The current is the voltage past the back EMF over the resistance.
+   */
+  private static double limitVoltage(double volts, double motorSpeedRadiansPerSecond, double currentLimitAmps) {
+    double backEmfVolts = motorSpeedRadiansPerSecond / FALCON_500.KvRadPerSecPerVolt;
+    double currentLimitVolts = currentLimitAmps * FALCON_500.rOhms;
+    return MathUtil.clamp(
+      MathUtil.clamp(volts, backEmfVolts - currentLimitVolts, backEmfVolts + currentLimitVolts), -12, 12
+    );
+  }
+
+  @Override
+  public double readDrivePositionMeters() {
+    return drivePositionMeters;
+  }
+
+  @Override
+  public double readTurnAbsolutePositionDegrees() {
+    return turnAbsolutePositionDegrees;
+  }
+
+  /**
+   * Returns the speed of the drive wheel as of the last update, for the simulated gyro.
+   */
+  public double getDriveVelocityMetersPerSecond() {
+    return driveVelocityMetersPerSecond;
+  }
+
+  @Override
+  public void setDriveVelocity(double speedMetersPerSecond, double feedForwardOutput) {
+    double feedbackVolts = driveVelocityController.calculate(driveVelocityMetersPerSecond, speedMetersPerSecond);
+    driveVolts = MathUtil.clamp(feedForwardOutput * 12 + feedbackVolts, -12, 12);
+  }
+
+  @Override
+  public void setTurnOutput(double output) {
+    turnVolts = MathUtil.clamp(output, -1, 1) * 12;
+  }
+
+  @Override
+  public void resetEncoders() {
+    drivePositionMeters = 0;
+    turnSim.setState(0, turnSim.getAngularVelocityRadPerSec());
+  }
+}
@@ -0,0 +1,124 @@
+package frc.robot.subsystems.drive;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.DemandType;
+import com.ctre.phoenix.motorcontrol.NeutralMode;
+import com.ctre.phoenix.motorcontrol.StatorCurrentLimitConfiguration;
+import com.ctre.phoenix.motorcontrol.StatusFrame;
+import com.ctre.phoenix.motorcontrol.SupplyCurrentLimitConfiguration;
+import com.ctre.phoenix.motorcontrol.TalonFXFeedbackDevice;
+import com.ctre.phoenix.motorcontrol.can.WPI_TalonFX;
+import com.ctre.phoenix.sensors.AbsoluteSensorRange;
+import com.ctre.phoenix.sensors.CANCoder;
+import com.ctre.phoenix.sensors.CANCoderStatusFrame;
+import frc.robot.Constants.DriveConstants;
+import frc.robot.Constants.HardwareConstants;
+import frc.robot.Constants.ModuleConstants;
+
+/**
+ * A swerve module with Falcon 500 drive and turn motors and a CANCoder for the module angle.
+ */
+public class ModuleIOTalonFX implements ModuleIO {
+
+  private final CANCoder turnEncoder;
+  private final WPI_TalonFX driveMotor;
+  private final WPI_TalonFX turnMotor;
+
+  /**
+   * Constructs the hardware for a swerve module
+   * @param driveMotorChannel ID of the drive motor
+   * @param turnMotorChannel ID of the turn motor
+   * @param turnEncoderChannel ID of the CANCoder
+   * @param angleZero CANCoder offset
+   * @param encoderReversed is the turn encoder reversed
+   * @param driveReversed is the drive motor reversed
+   */
+  public ModuleIOTalonFX(
+    int driveMotorChannel,
+    int turnMotorChannel,
+    int turnEncoderChannel,
+    double angleZero,
+    boolean encoderReversed,
+    boolean driveReversed
+    ) {
+    turnEncoder = new CANCoder(turnEncoderChannel, HardwareConstants.CANIVORE_CAN_BUS_STRING);
+    driveMotor = new WPI_TalonFX(driveMotorChannel, HardwareConstants.CANIVORE_CAN_BUS_STRING);
+    turnMotor = new WPI_TalonFX(turnMotorChannel, HardwareConstants.CANIVORE_CAN_BUS_STRING);
+        
+    turnEncoder.configAbsoluteSensorRange(AbsoluteSensorRange.Signed_PlusMinus180, HardwareConstants.TIMEOUT_MS);
+    turnEncoder.configMagnetOffset(-angleZero, HardwareConstants.TIMEOUT_MS);
+    turnEncoder.configSensorDirection(encoderReversed, HardwareConstants.TIMEOUT_MS);
+    turnEncoder.setStatusFramePeriod(CANCoderStatusFrame.SensorData, DriveConstants.ODOMETRY_STATUS_FRAME_PERIOD_MS, HardwareConstants.TIMEOUT_MS);
+
+    driveMotor.configFactoryDefault(HardwareConstants.TIMEOUT_MS);
+    driveMotor.configSelectedFeedbackSensor(TalonFXFeedbackDevice.IntegratedSensor, 0, HardwareConstants.TIMEOUT_MS);
+    driveMotor.config_kF(0, ModuleConstants.DRIVE_F, HardwareConstants.TIMEOUT_MS);
+    driveMotor.config_kP(0, ModuleConstants.DRIVE_P, HardwareConstants.TIMEOUT_MS);
+    driveMotor.config_kI(0, ModuleConstants.DRIVE_I, HardwareConstants.TIMEOUT_MS);
+    driveMotor.config_kD(0, ModuleConstants.DRIVE_D, HardwareConstants.TIMEOUT_MS);
+    driveMotor.setNeutralMode(NeutralMode.Brake);
+    driveMotor.setInverted(driveReversed);
+    driveMotor.configNeutralDeadband(HardwareConstants.MIN_FALCON_DEADBAND * 10, HardwareConstants.TIMEOUT_MS);
+    driveMotor.configStatorCurrentLimit(
+      new StatorCurrentLimitConfiguration(true, ModuleConstants.DRIVE_CURRENT_LIMIT_AMPS, 65, 0.1), HardwareConstants.TIMEOUT_MS
+    );
+    driveMotor.configSupplyCurrentLimit(
+      new SupplyCurrentLimitConfiguration(true, ModuleConstants.DRIVE_CURRENT_LIMIT_AMPS, 65, 0.1), HardwareConstants.TIMEOUT_MS
+    );
+    driveMotor.setStatusFramePeriod(StatusFrame.Status_1_General, 250);
+    // driveMotor.setStatusFramePeriod(StatusFrame.Status_1_General, 10);
+    // Sent as fast as the odometry thread samples it
+    driveMotor.setStatusFramePeriod(StatusFrame.Status_2_Feedback0, DriveConstants.ODOMETRY_STATUS_FRAME_PERIOD_MS);
+
+    turnMotor.configFactoryDefault(HardwareConstants.TIMEOUT_MS);
+    turnMotor.setNeutralMode(NeutralMode.Brake);
+    turnMotor.setInverted(true);
+    turnMotor.configNeutralDeadband(HardwareConstants.MIN_FALCON_DEADBAND, HardwareConstants.TIMEOUT_MS);
+    turnMotor.configStatorCurrentLimit(new StatorCurrentLimitConfiguration(true, 60, 65, 0.1), HardwareConstants.TIMEOUT_MS);
+    turnMotor.configSupplyCurrentLimit(new SupplyCurrentLimitConfiguration(true, 60, 65, 0.1), HardwareConstants.TIMEOUT_MS);
+    turnMotor.setStatusFramePeriod(StatusFrame.Status_1_General, 250);
+    turnMotor.setStatusFramePeriod(StatusFrame.Status_2_Feedback0, 250);
+  }
+
+  @Override
+  public void updateInputs(ModuleInputs inputs) {
+    inputs.drivePositionMeters = readDrivePositionMeters();
+    inputs.driveVelocityMetersPerSecond = ModuleConstants.DRIVE_TO_METERS_PER_SECOND * driveMotor.getSelectedSensorVelocity();
+    inputs.turnAbsolutePositionDegrees = readTurnAbsolutePositionDegrees();
+  }
+
+  @Override
+  public double readDrivePositionMeters() {
+    return ModuleConstants.DRIVE_TO_METERS * driveMotor.getSelectedSensorPosition();
+  }
+
+  @Override
+  public double readTurnAbsolutePositionDegrees() {
+    return turnEncoder.getAbsolutePosition();
+  }
+
+  @Override
+  public void setDriveVelocity(double speedMetersPerSecond, double feedForwardOutput) {
+    // Converts meters per second to rpm
+    double desiredDriveRPM = speedMetersPerSecond * 60 
+      * ModuleConstants.DRIVE_GEAR_RATIO / ModuleConstants.WHEEL_CIRCUMFERENCE_METERS;
+      
+    // Converts rpm to encoder units per 100 milliseconds
+    double desiredDriveEncoderUnitsPer100MS = desiredDriveRPM / 600.0 * 2048;
+
+    // Sets the drive motor's speed using the built in pid controller
+    driveMotor.set(ControlMode.Velocity, desiredDriveEncoderUnitsPer100MS, 
+      DemandType.ArbitraryFeedForward, feedForwardOutput);
+  }
+
+  @Override
+  public void setTurnOutput(double output) {
+    turnMotor.set(output);
+  }
+
+  @Override
+  public void resetEncoders() {
+    turnEncoder.setPosition(0);
+    driveMotor.setSelectedSensorPosition(0);
+  }
+}
@@ -0,0 +1,16 @@
+package frc.robot.subsystems.drive;
+
+/**
+ * A snapshot of the sensor values of a swerve module. It is filled in once at the start
+ * of every loop so the CAN signals are only read once, and so every reading in the same
+ * loop agrees with each other. SwerveModule also fills it in when it's made, so there's a valid
+ * snapshot before the first loop runs.
+ */
+public class ModuleInputs {
+  /** The distance the drive wheel has travelled in meters. */
+  public double drivePositionMeters = 0;
+  /** The speed of the drive wheel in meters per second. */
+  public double driveVelocityMetersPerSecond = 0;
+  /** The absolute position of the CANCoder in degrees, from -180 to 180. */
+  public double turnAbsolutePositionDegrees = 0;
+}
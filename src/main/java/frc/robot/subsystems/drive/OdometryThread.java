@@ -0,0 +1,147 @@
+package frc.robot.subsystems.drive;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants.DriveConstants;
+
+/**
+ * Samples the swerve module positions and the gyro at a higher rate than the main loop on its
+ * own thread. Every sample is stamped with the FPGA time it was taken at and stored in a ring
+ * buffer, which the drive subsystem drains into the pose estimator every loop.
+ */
+public class OdometryThread {
+  /** The most samples that can be held between drains, older samples get overwritten. */
+  public static final int BUFFER_SIZE = 32;
+
+  private final SwerveModule[] swerveModules;
+  private final DoubleSupplier headingSupplier;
+  private final Notifier notifier;
+
+  private final Lock bufferLock = new ReentrantLock();
+  private final double[] timestamps = new double[BUFFER_SIZE];
+  private final double[] headingsDegrees = new double[BUFFER_SIZE];
+  private final double[][] drivePositionsMeters;
+  private final double[][] turnPositionsDegrees;
+  private int oldestSampleIndex = 0;
+  private int sampleCount = 0;
+  // Goes up every clear, only changed while the buffer is locked
+  private volatile int resetGeneration = 0;
+
+  // Only used by the odometry thread, these are filled in before the buffer is locked
+  private final double[] latestDrivePositionsMeters;
+  private final double[] latestTurnPositionsDegrees;
+
+  /**
+   * Creates a new OdometryThread. It doesn't sample anything until start is called.
+   * @param swerveModules The swerve modules in the same order as the kinematics.
+   * @param headingSupplier Supplies the heading of the robot in degrees. It is called from 
+   * the odometry thread.
+   */
+  public OdometryThread(SwerveModule[] swerveModules, DoubleSupplier headingSupplier) {
+    this.swerveModules = swerveModules;
+    this.headingSupplier = headingSupplier;
+
+    drivePositionsMeters = new double[BUFFER_SIZE][swerveModules.length];
+    turnPositionsDegrees = new double[BUFFER_SIZE][swerveModules.length];
+    latestDrivePositionsMeters = new double[swerveModules.length];
+    latestTurnPositionsDegrees = new double[swerveModules.length];
+
+    notifier = new Notifier(this::sample);
+    notifier.setName("OdometryThread");
+  }
+
+  /**
+   * Starts sampling at DriveConstants.ODOMETRY_FREQUENCY_HZ.
+   */
+  public void start() {
+    notifier.startPeriodic(1.0 / DriveConstants.ODOMETRY_FREQUENCY_HZ);
+  }
+
+  /**
+   * Stops sampling for good and frees the notifier.
+   */
+  public void close() {
+    notifier.close();
+  }
+
+  /**
+   * Copies every sample taken since the last drain into the given arrays, oldest first, and 
+   * empties the buffer. The arrays need to be at least BUFFER_SIZE long.
+   * @return The number of samples that were copied.
+   */
+  public int drain(double[] timestampsOut, double[] headingsDegreesOut, 
+    double[][] drivePositionsMetersOut, double[][] turnPositionsDegreesOut) {
+    bufferLock.lock();
+    try {
+      for (int i = 0; i < sampleCount; i++) {
+        int bufferIndex = (oldestSampleIndex + i) % BUFFER_SIZE;
+        timestampsOut[i] = timestamps[bufferIndex];
+        headingsDegreesOut[i] = headingsDegrees[bufferIndex];
+        System.arraycopy(drivePositionsMeters[bufferIndex], 0, drivePositionsMetersOut[i], 0, swerveModules.length);
+        System.arraycopy(turnPositionsDegrees[bufferIndex], 0, turnPositionsDegreesOut[i], 0, swerveModules.length);
+      }
+      int drainedSampleCount = sampleCount;
+      oldestSampleIndex = 0;
+      sampleCount = 0;
+      return drainedSampleCount;
+    } finally {
+      bufferLock.unlock();
+    }
+  }
+
+  /**
+   * Throws away every sample that hasn't been drained yet. This should be called when the
+   * odometry or gyro is reset so old samples aren't applied on top of the new pose.
+   */
+  public void clear() {
+    bufferLock.lock();
+    try {
+      oldestSampleIndex = 0;
+      sampleCount = 0;
+      resetGeneration++;
+    } finally {
+      bufferLock.unlock();
+    }
+  }
+
+  /**
+   * Runs on the odometry thread. Reads the sensors and adds a sample to the buffer.
+   */
+  private void sample() {
+    // A sample that was being read while the buffer was cleared is from before the reset
+    int sampleResetGeneration = resetGeneration;
+    // The sensors are read before locking so the main thread never waits on CAN
+    for (int i = 0; i < swerveModules.length; i++) {
+      latestDrivePositionsMeters[i] = swerveModules[i].readDrivePositionMeters();
+      latestTurnPositionsDegrees[i] = swerveModules[i].readTurnAbsolutePositionDegrees();
+    }
+    double headingDegrees = headingSupplier.getAsDouble();
+    double timestamp = Timer.getFPGATimestamp();
+
+    bufferLock.lock();
+    try {
+      if (sampleResetGeneration != resetGeneration) {
+        return;
+      }
+      int bufferIndex;
+      if (sampleCount < BUFFER_SIZE) {
+        bufferIndex = (oldestSampleIndex + sampleCount) % BUFFER_SIZE;
+        sampleCount++;
+      } else {
+        // The buffer is full, so the oldest sample gets replaced
+        bufferIndex = oldestSampleIndex;
+        oldestSampleIndex = (oldestSampleIndex + 1) % BUFFER_SIZE;
+      }
+      timestamps[bufferIndex] = timestamp;
+      headingsDegrees[bufferIndex] = headingDegrees;
+      System.arraycopy(latestDrivePositionsMeters, 0, drivePositionsMeters[bufferIndex], 0, swerveModules.length);
+      System.arraycopy(latestTurnPositionsDegrees, 0, turnPositionsDegrees[bufferIndex], 0, swerveModules.length);
+    } finally {
+      bufferLock.unlock();
+    }
+  }
+}
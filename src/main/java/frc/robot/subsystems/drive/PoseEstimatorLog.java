@@ -0,0 +1,89 @@
+package frc.robot.subsystems.drive;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import frc.robot.extras.OnRobotLogger;
+import frc.robot.subsystems.vision.VisionMeasurement;
+
+/**
+ * Logs everything that goes into the pose estimator, in the order it goes in, so the pose
+ * estimator replay can run it again offline. The entry names and value layouts here are what
+ * the replay reads. These are only called from the main loop, so the value arrays are shared.
+ */
+public final class PoseEstimatorLog {
+
+  /** timestamp in seconds, heading in degrees, 4 drive positions in meters, 4 turn positions in degrees */
+  public static final String ODOMETRY_SAMPLE_KEY = "PoseEstimator/OdometrySample";
+  /** x, y, rotation in radians, gyro heading in degrees, 4 drive positions in meters, 4 turn positions in degrees */
+  public static final String RESET_KEY = "PoseEstimator/Reset";
+  /** If any limelight could see an april tag, logged once per loop before that loop's vision measurements */
+  public static final String CAN_SEE_APRIL_TAGS_KEY = "PoseEstimator/CanSeeAprilTags";
+  /** x, y, rotation in radians, capture timestamp in seconds, number of april tags, distance from the closest one */
+  public static final String VISION_MEASUREMENT_KEY = "PoseEstimator/VisionMeasurement";
+  /** x, y, rotation in radians, logged once per loop */
+  public static final String ESTIMATED_POSE_KEY = "PoseEstimator/EstimatedPose";
+
+  private static final double[] odometrySample = new double[10];
+  private static final double[] reset = new double[12];
+  private static final double[] visionMeasurementValues = new double[6];
+  private static final double[] estimatedPose = new double[3];
+
+  private PoseEstimatorLog() {}
+
+  public static void logOdometrySample(double timestampSeconds, double headingDegrees, double[] drivePositionsMeters,
+    double[] turnPositionsDegrees) {
+    if (!OnRobotLogger.isRunning()) {
+      return;
+    }
+    odometrySample[0] = timestampSeconds;
+    odometrySample[1] = headingDegrees;
+    for (int i = 0; i < 4; i++) {
+      odometrySample[2 + i] = drivePositionsMeters[i];
+      odometrySample[6 + i] = turnPositionsDegrees[i];
+    }
+    OnRobotLogger.logNumbers(ODOMETRY_SAMPLE_KEY, odometrySample);
+  }
+
+  public static void logReset(Pose2d pose, double headingDegrees, SwerveModulePosition[] modulePositions) {
+    if (!OnRobotLogger.isRunning()) {
+      return;
+    }
+    reset[0] = pose.getX();
+    reset[1] = pose.getY();
+    reset[2] = pose.getRotation().getRadians();
+    reset[3] = headingDegrees;
+    for (int i = 0; i < 4; i++) {
+      reset[4 + i] = modulePositions[i].distanceMeters;
+      reset[8 + i] = modulePositions[i].angle.getDegrees();
+    }
+    OnRobotLogger.logNumbers(RESET_KEY, reset);
+  }
+
+  public static void logCanSeeAprilTags(boolean canSeeAprilTags) {
+    OnRobotLogger.logBoolean(CAN_SEE_APRIL_TAGS_KEY, canSeeAprilTags);
+  }
+
+  public static void logVisionMeasurement(VisionMeasurement visionMeasurement) {
+    if (!OnRobotLogger.isRunning()) {
+      return;
+    }
+    Pose2d pose = visionMeasurement.getPose();
+    visionMeasurementValues[0] = pose.getX();
+    visionMeasurementValues[1] = pose.getY();
+    visionMeasurementValues[2] = pose.getRotation().getRadians();
+    visionMeasurementValues[3] = visionMeasurement.getCaptureTimestampSeconds();
+    visionMeasurementValues[4] = visionMeasurement.getNumberOfAprilTags();
+    visionMeasurementValues[5] = visionMeasurement.getDistanceFromClosestAprilTag();
+    OnRobotLogger.logNumbers(VISION_MEASUREMENT_KEY, visionMeasurementValues);
+  }
+
+  public static void logEstimatedPose(Pose2d pose) {
+    if (!OnRobotLogger.isRunning()) {
+      return;
+    }
+    estimatedPose[0] = pose.getX();
+    estimatedPose[1] = pose.getY();
+    estimatedPose[2] = pose.getRotation().getRadians();
+    OnRobotLogger.logNumbers(ESTIMATED_POSE_KEY, estimatedPose);
+  }
+}
@@ -1,15 +1,6 @@
 package frc.robot.subsystems.drive;
 
-import com.ctre.phoenix.motorcontrol.ControlMode;
-import com.ctre.phoenix.motorcontrol.DemandType;
-import com.ctre.phoenix.motorcontrol.NeutralMode;
-import com.ctre.phoenix.motorcontrol.StatorCurrentLimitConfiguration;
-import com.ctre.phoenix.motorcontrol.StatusFrame;
-import com.ctre.phoenix.motorcontrol.SupplyCurrentLimitConfiguration;
-import com.ctre.phoenix.motorcontrol.TalonFXFeedbackDevice;
-import com.ctre.phoenix.motorcontrol.can.WPI_TalonFX;
-import com.ctre.phoenix.sensors.AbsoluteSensorRange;
-import com.ctre.phoenix.sensors.CANCoder;
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.controller.ProfiledPIDController;
 import edu.wpi.first.math.controller.SimpleMotorFeedforward;
 import edu.wpi.first.math.geometry.Rotation2d;
@@ -17,14 +8,11 @@ import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.robot.Constants.DriveConstants;
-import frc.robot.Constants.HardwareConstants;
 import frc.robot.Constants.ModuleConstants;
 
 public class SwerveModule {
 
-  private final CANCoder turnEncoder;
-  private final WPI_TalonFX driveMotor;
-  private final WPI_TalonFX turnMotor;
+  private final ModuleIO moduleIO;
 
   private final ProfiledPIDController turnPIDController =
     new ProfiledPIDController(
@@ -46,62 +34,56 @@ public class SwerveModule {
     ModuleConstants.DRIVE_A
   );
 
+  private final ModuleInputs inputs = new ModuleInputs();
+
   private String name;
 
   /**
    * Constructs a swerve module
-   * @param driveMotorChannel ID of the drive motor
-   * @param turnMotorChannel ID of the turn motor
-   * @param turnEncoderChannel ID of the CANCoder
-   * @param angleZero CANCoder offset
-   * @param encoderReversed is the turn encoder reversed
-   * @param driveReversed is the drive motor reversed
+   * @param moduleIO the module's motors and encoders, real or simulated
+   * @param name the name of the module
    */
-  public SwerveModule(
-    int driveMotorChannel,
-    int turnMotorChannel,
-    int turnEncoderChannel,
-    double angleZero,
-    boolean encoderReversed,
-    boolean driveReversed,
-    String name
-    ) {
+  public SwerveModule(ModuleIO moduleIO, String name) {
+    this.moduleIO = moduleIO;
     this.name = name;
-    
-    turnEncoder = new CANCoder(turnEncoderChannel, HardwareConstants.CANIVORE_CAN_BUS_STRING);
-    driveMotor = new WPI_TalonFX(driveMotorChannel, HardwareConstants.CANIVORE_CAN_BUS_STRING);
-    turnMotor = new WPI_TalonFX(turnMotorChannel, HardwareConstants.CANIVORE_CAN_BUS_STRING);
-        
-    turnEncoder.configAbsoluteSensorRange(AbsoluteSensorRange.Signed_PlusMinus180, HardwareConstants.TIMEOUT_MS);
-    turnEncoder.configMagnetOffset(-angleZero, HardwareConstants.TIMEOUT_MS);
-    turnEncoder.configSensorDirection(encoderReversed, HardwareConstants.TIMEOUT_MS);
-
-    driveMotor.configFactoryDefault(HardwareConstants.TIMEOUT_MS);
-    driveMotor.configSelectedFeedbackSensor(TalonFXFeedbackDevice.IntegratedSensor, 0, HardwareConstants.TIMEOUT_MS);
-    driveMotor.config_kF(0, ModuleConstants.DRIVE_F, HardwareConstants.TIMEOUT_MS);
-    driveMotor.config_kP(0, ModuleConstants.DRIVE_P, HardwareConstants.TIMEOUT_MS);
-    driveMotor.config_kI(0, ModuleConstants.DRIVE_I, HardwareConstants.TIMEOUT_MS);
-    driveMotor.config_kD(0, ModuleConstants.DRIVE_D, HardwareConstants.TIMEOUT_MS);
-    driveMotor.setNeutralMode(NeutralMode.Brake);
-    driveMotor.setInverted(driveReversed);
-    driveMotor.configNeutralDeadband(HardwareConstants.MIN_FALCON_DEADBAND * 10, HardwareConstants.TIMEOUT_MS);
-    driveMotor.configStatorCurrentLimit(new StatorCurrentLimitConfiguration(true, 60, 65, 0.1), HardwareConstants.TIMEOUT_MS);
-    driveMotor.configSupplyCurrentLimit(new SupplyCurrentLimitConfiguration(true, 60, 65, 0.1), HardwareConstants.TIMEOUT_MS);
-    driveMotor.setStatusFramePeriod(StatusFrame.Status_1_General, 250);
-    // driveMotor.setStatusFramePeriod(StatusFrame.Status_1_General, 10);
-    driveMotor.setStatusFramePeriod(StatusFrame.Status_2_Feedback0, 20);
-
-    turnMotor.configFactoryDefault(HardwareConstants.TIMEOUT_MS);
-    turnMotor.setNeutralMode(NeutralMode.Brake);
-    turnMotor.setInverted(true);
-    turnMotor.configNeutralDeadband(HardwareConstants.MIN_FALCON_DEADBAND, HardwareConstants.TIMEOUT_MS);
-    turnMotor.configStatorCurrentLimit(new StatorCurrentLimitConfiguration(true, 60, 65, 0.1), HardwareConstants.TIMEOUT_MS);
-    turnMotor.configSupplyCurrentLimit(new SupplyCurrentLimitConfiguration(true, 60, 65, 0.1), HardwareConstants.TIMEOUT_MS);
-    turnMotor.setStatusFramePeriod(StatusFrame.Status_1_General, 250);
-    turnMotor.setStatusFramePeriod(StatusFrame.Status_2_Feedback0, 250);
 
     // Limit the PID Controller's input range between -pi and pi and set the input to be continuous.
     turnPIDController.enableContinuousInput(-Math.PI, Math.PI);
+
+    updateInputs();
+  }
+
+  /**
+   * Reads the module's sensors over CAN into its snapshot. This should be called once at the
+   * start of every loop, everything else reads from the snapshot.
+   */
+  public void updateInputs() {
+    moduleIO.updateInputs(inputs);
+  }
+
+  /**
+   * Reads the distance the drive wheel has travelled in meters directly from the motor. This is
+   * for the odometry thread and odometry resets, everything else on the main loop should use
+   * getInputs.
+   */
+  public double readDrivePositionMeters() {
+    return moduleIO.readDrivePositionMeters();
+  }
+
+  /**
+   * Reads the absolute position of the CANCoder in degrees directly from the CANCoder. This is
+   * for the odometry thread and odometry resets, everything else on the main loop should use
+   * getInputs.
+   */
+  public double readTurnAbsolutePositionDegrees() {
+    return moduleIO.readTurnAbsolutePositionDegrees();
+  }
+
+  /**
+   * Returns the module's sensor values as of the last call to updateInputs.
+   */
+  public ModuleInputs getInputs() {
+    return inputs;
   }
 
   /**
@@ -131,7 +113,7 @@ public class SwerveModule {
    * @return the absolute position of the CANCoder
    */
   public double getModuleHeading() {
-    return this.turnEncoder.getAbsolutePosition() % 360;
+    return inputs.turnAbsolutePositionDegrees % 360;
   }
 
   /**
@@ -139,15 +121,13 @@ public class SwerveModule {
    * @return The current state of the module.
    */
   public SwerveModuleState getState() {
-    double speedMetersPerSecond = ModuleConstants.DRIVE_TO_METERS_PER_SECOND * driveMotor.getSelectedSensorVelocity();
-    double turnRadians = (Math.PI / 180) * turnEncoder.getAbsolutePosition();
-    return new SwerveModuleState(speedMetersPerSecond, new Rotation2d(turnRadians));
+    double turnRadians = (Math.PI / 180) * inputs.turnAbsolutePositionDegrees;
+    return new SwerveModuleState(inputs.driveVelocityMetersPerSecond, new Rotation2d(turnRadians));
   }
 
   public SwerveModulePosition getPosition() {
-    double position = ModuleConstants.DRIVE_TO_METERS * driveMotor.getSelectedSensorPosition();
-    Rotation2d rotation = Rotation2d.fromDegrees(getCANCoderABS());
-    return new SwerveModulePosition(position, rotation);
+    Rotation2d rotation = Rotation2d.fromDegrees(inputs.turnAbsolutePositionDegrees);
+    return new SwerveModulePosition(inputs.drivePositionMeters, rotation);
   }
 
   /**
@@ -155,35 +135,41 @@ public class SwerveModule {
    * @param desiredState Desired state with speed and angle.
    */
   public void setDesiredState(SwerveModuleState desiredState) {
+    setDesiredState(desiredState.speedMetersPerSecond, desiredState.angle.getRadians());
+  }
+
+  /**
+   * Sets the desired state for the module from primitives. This does the same thing as
+   * setDesiredState(SwerveModuleState), but optimizes the state in place instead of going
+   * through SwerveModuleState.optimize, so it doesn't allocate anything.
+   * @param desiredSpeedMetersPerSecond Desired speed of the wheel in meters per second.
+   * @param desiredAngleRadians Desired angle of the module in radians.
+   */
+  public void setDesiredState(double desiredSpeedMetersPerSecond, double desiredAngleRadians) {
     double turnRadians = getTurnRadians();
 
     // Optimize the reference state to avoid spinning further than 90 degrees
-    SwerveModuleState optimizedDesiredState = SwerveModuleState.optimize(desiredState, new Rotation2d(turnRadians));
-
-    // Converts meters per second to rpm
-    double desiredDriveRPM = optimizedDesiredState.speedMetersPerSecond * 60 
-      * ModuleConstants.DRIVE_GEAR_RATIO / ModuleConstants.WHEEL_CIRCUMFERENCE_METERS;
-      
-    // Converts rpm to encoder units per 100 milliseconds
-    double desiredDriveEncoderUnitsPer100MS = desiredDriveRPM / 600.0 * 2048;
+    if (Math.abs(MathUtil.angleModulus(desiredAngleRadians - turnRadians)) > Math.PI / 2) {
+      desiredSpeedMetersPerSecond = -desiredSpeedMetersPerSecond;
+      desiredAngleRadians = MathUtil.angleModulus(desiredAngleRadians + Math.PI);
+    }
 
-    // Sets the drive motor's speed using the built in pid controller
-    driveMotor.set(ControlMode.Velocity, desiredDriveEncoderUnitsPer100MS, 
-      DemandType.ArbitraryFeedForward, driveFeedForward.calculate(optimizedDesiredState.speedMetersPerSecond));
+    // Sets the drive motor's speed using the motor controller's velocity control
+    moduleIO.setDriveVelocity(desiredSpeedMetersPerSecond, driveFeedForward.calculate(desiredSpeedMetersPerSecond));
 
     // Calculate the turning motor output from the turn PID controller.
     double turnOutput =
-      turnPIDController.calculate(turnRadians, optimizedDesiredState.angle.getRadians())
+      turnPIDController.calculate(turnRadians, desiredAngleRadians)
         + turnFeedForward.calculate(turnPIDController.getSetpoint().velocity);
-        turnMotor.set(turnOutput / 12);
+    moduleIO.setTurnOutput(turnOutput / 12);
   }
 
   public double getTurnRadians() {
-    return ((2 * Math.PI) / 360) * turnEncoder.getAbsolutePosition();
+    return ((2 * Math.PI) / 360) * inputs.turnAbsolutePositionDegrees;
   }
 
   public double getAbsolutePosition() {
-    return turnEncoder.getAbsolutePosition();
+    return inputs.turnAbsolutePositionDegrees;
   }
 
   /**
@@ -191,14 +177,13 @@ public class SwerveModule {
    * @return current CANCoder position
    */
   public double getCANCoderABS(){
-    return turnEncoder.getAbsolutePosition();
+    return inputs.turnAbsolutePositionDegrees;
   }
 
   @Deprecated
   /** Zeros all the SwerveModule encoders. */
   public void resetEncoders() {
-    turnEncoder.setPosition(0);
-    driveMotor.setSelectedSensorPosition(0);
+    moduleIO.resetEncoders();
   }
 
   public void periodicFunction() {}
@@ -9,11 +9,11 @@ import java.nio.charset.StandardCharsets;
 import edu.wpi.first.wpilibj.AddressableLED;
 import edu.wpi.first.wpilibj.AddressableLEDBuffer;
 import edu.wpi.first.wpilibj.DriverStation;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.LEDConstants;
 import frc.robot.Constants.LEDConstants.LEDProcess;
+import frc.robot.subsystems.ProfiledSubsystemBase;
 
-public class LEDSubsystemImplBTF extends SubsystemBase implements LEDSubsystem {
+public class LEDSubsystemImplBTF extends ProfiledSubsystemBase implements LEDSubsystem {
 
   private final AddressableLED led;
   private final AddressableLEDBuffer buffer;
@@ -35,7 +35,7 @@ public class LEDSubsystemImplBTF extends SubsystemBase implements LEDSubsystem {
   }
 
   @Override
-  public void periodic() {  
+  protected void profiledPeriodic() {  
     // Periodic runs at 50 frames per second.
     // I hate this, but the alternative is worse.
     totalOffset += 50.0 / LEDConstants.ANIMATION_SPEED;
@@ -11,16 +11,16 @@ import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj.motorcontrol.Spark;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.DriveConstants;
 import frc.robot.Constants.LEDConstants;
 import frc.robot.Constants.LEDConstants.SparkConstants;
 import frc.robot.extras.NodeAndModeRegistry;
 import frc.robot.extras.SmarterDashboardRegistry;
 import frc.robot.Constants.LEDConstants.LEDProcess;
+import frc.robot.subsystems.ProfiledSubsystemBase;
 
 
-public class LEDSubsystemImplSpark extends SubsystemBase implements LEDSubsystem {
+public class LEDSubsystemImplSpark extends ProfiledSubsystemBase implements LEDSubsystem {
 
   private Spark ledSpark;
 
@@ -51,7 +51,7 @@ public class LEDSubsystemImplSpark extends SubsystemBase implements LEDSubsystem
   }
 
   @Override
-  public void periodic() {
+  protected void profiledPeriodic() {
     Pose2d currentPose = SmarterDashboardRegistry.getPose();
     if (inChuteZone(currentPose)) {
       double currentX = currentPose.getX();
@@ -0,0 +1,324 @@
+package frc.robot.subsystems.vision;
+
+import java.util.Arrays;
+import java.util.List;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.networktables.DoubleArraySubscriber;
+import edu.wpi.first.networktables.DoubleSubscriber;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.networktables.TimestampedDouble;
+import edu.wpi.first.networktables.TimestampedDoubleArray;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants.LimelightConstants;
+import frc.robot.extras.LimelightHelpers;
+import frc.robot.extras.LimelightHelpers.LimelightResults;
+import frc.robot.extras.LimelightHelpers.Results;
+
+/**
+ * Reads a limelight's robot pose from its compact NetworkTables entries (botpose_wpiblue, tid,
+ * tl and cl) instead of the JSON results dump. All of them are queued with the time NetworkTables
+ * received them, so no frame is missed, each frame gets the tag ID and latencies that were
+ * published with it, and each one can be traced back to when the camera captured it. Every frame's
+ * capture time is estimated from when it arrived the same way, corrected with ts_rio from the JSON
+ * results when the limelight is synced to the roboRIO, so frames are only ever compared on one clock. If the
+ * limelight stops publishing for FRAME_TIMEOUT_SECONDS, it's treated as not seeing a tag.
+ *
+ * <p>The JSON results are only parsed when they're needed: every frame if the firmware doesn't put
+ * the tag count in botpose, and otherwise once every JSON_SAMPLE_PERIOD_SECONDS while a tag is
+ * seen, to keep learning the transmit delay.
+ */
+public class LimelightPoseSubscriber {
+
+  // How many botpose updates are kept between calls to update, a few loops worth at the limelight's frame rate
+  private static final int QUEUE_SIZE = 10;
+  private static final int BOTPOSE_TAG_COUNT_INDEX = 7;
+
+  private final DoubleArraySubscriber botPoseSubscriber;
+  private final QueuedDouble tagIDQueue;
+  private final QueuedDouble pipelineLatencyQueue;
+  private final QueuedDouble captureLatencyQueue;
+  private final String limelightName;
+  // Only made once the JSON results are first needed
+  private LimelightResultsListener resultsListener;
+  private Results latestResults = new Results();
+  private double lastResultsRequestSeconds = Double.NEGATIVE_INFINITY;
+
+  private double lastFrameArrivalSeconds = 0;
+  // What the last frame published, a republished frame has the exact same values
+  private double[] lastBotPose = new double[0];
+  private double lastFallbackLatencySeconds = 0;
+  private double lastFrameDoneTimestampSeconds = 0;
+  // The shortest time a frame has taken to get here after the limelight was done with it, from the frames ts_rio was known for
+  private double transmitDelaySeconds = Double.POSITIVE_INFINITY;
+  private boolean canSeeAprilTags = false;
+  private Pose2d pose = new Pose2d();
+  private int closestAprilTagID = -1;
+  private int numberOfAprilTags = 0;
+  private double captureTimestampSeconds = 0;
+  private double latencySeconds = 0;
+  private double distanceFromClosestAprilTag = Double.MAX_VALUE;
+
+  /**
+   * Subscribes to the specified limelight's pose entries.
+   * @param limelightName The name of the limelight's NetworkTables table.
+   */
+  public LimelightPoseSubscriber(String limelightName) {
+    this.limelightName = limelightName;
+    NetworkTable limelightTable = LimelightHelpers.getLimelightNTTable(limelightName);
+    botPoseSubscriber = limelightTable.getDoubleArrayTopic("botpose_wpiblue").subscribe(
+      new double[0], PubSubOption.keepDuplicates(true), PubSubOption.pollStorage(QUEUE_SIZE)
+    );
+    tagIDQueue = new QueuedDouble(limelightTable.getDoubleTopic("tid").subscribe(
+      -1, PubSubOption.keepDuplicates(true), PubSubOption.pollStorage(QUEUE_SIZE)
+    ), -1);
+    pipelineLatencyQueue = new QueuedDouble(limelightTable.getDoubleTopic("tl").subscribe(
+      0, PubSubOption.keepDuplicates(true), PubSubOption.pollStorage(QUEUE_SIZE)
+    ), 0);
+    captureLatencyQueue = new QueuedDouble(limelightTable.getDoubleTopic("cl").subscribe(
+      0, PubSubOption.keepDuplicates(true), PubSubOption.pollStorage(QUEUE_SIZE)
+    ), 0);
+  }
+
+  /**
+   * Reads every botpose update since the last call and keeps the newest one. This should be
+   * called once per loop.
+   * @param visionMeasurements Gets a measurement added for every new frame that saw april tags.
+   * @return True if there was a new botpose update.
+   */
+  public boolean update(List<VisionMeasurement> visionMeasurements) {
+    if (resultsListener != null) {
+      LimelightResults newResults = resultsListener.getNewResults();
+      if (newResults != null) {
+        latestResults = newResults.targetingResults;
+        // The dump is parsed in the background, so it's often from a frame that was read last loop
+        sampleTransmitDelay(lastBotPose, lastFrameDoneTimestampSeconds);
+      }
+    }
+
+    TimestampedDoubleArray[] botPoseQueue = botPoseSubscriber.readQueue();
+    tagIDQueue.readQueue();
+    pipelineLatencyQueue.readQueue();
+    captureLatencyQueue.readQueue();
+    if (botPoseQueue.length == 0) {
+      // An unplugged limelight or a dropped connection stops the updates, so its last frame can't be trusted forever
+      if (Timer.getFPGATimestamp() - lastFrameArrivalSeconds > LimelightConstants.FRAME_TIMEOUT_SECONDS) {
+        clearAprilTags();
+      }
+      return false;
+    }
+
+    boolean hasNewFrame = false;
+    for (TimestampedDoubleArray timestampedBotPose : botPoseQueue) {
+      double[] botPose = timestampedBotPose.value;
+      lastFrameArrivalSeconds = timestampedBotPose.timestamp / 1e6;
+      // Each frame gets the values that were published with it
+      closestAprilTagID = (int) tagIDQueue.getValueNearest(timestampedBotPose.timestamp);
+      double fallbackLatencySeconds = (pipelineLatencyQueue.getValueNearest(timestampedBotPose.timestamp)
+        + captureLatencyQueue.getValueNearest(timestampedBotPose.timestamp)) / 1000.0;
+
+      // The same frame can be published more than once, and a copy arrives later so its estimated capture
+      // time is later too. The camera's own values can't change between copies, so those are compared instead.
+      boolean isDuplicateFrame = Arrays.equals(botPose, lastBotPose) && fallbackLatencySeconds == lastFallbackLatencySeconds;
+      lastBotPose = botPose;
+      lastFallbackLatencySeconds = fallbackLatencySeconds;
+      if (isDuplicateFrame) {
+        continue;
+      }
+
+      // Newer firmware adds the total latency and tag count to the end of botpose
+      double frameLatencySeconds = botPose.length > 6 ? botPose[6] / 1000.0 : fallbackLatencySeconds;
+      // NetworkTables timestamps are in microseconds on the same clock as the FPGA timestamp, but
+      // they're when the pose arrived, so the capture time is estimated by taking off the latency
+      double frameDoneTimestampSeconds = timestampedBotPose.timestamp / 1e6 - frameLatencySeconds;
+      lastFrameDoneTimestampSeconds = frameDoneTimestampSeconds;
+      sampleTransmitDelay(botPose, frameDoneTimestampSeconds);
+      double frameCaptureTimestampSeconds = Double.isInfinite(transmitDelaySeconds)
+        ? frameDoneTimestampSeconds : frameDoneTimestampSeconds - transmitDelaySeconds;
+
+      // Frames that got here out of order would go into the estimator out of order
+      if (frameCaptureTimestampSeconds <= captureTimestampSeconds) {
+        continue;
+      }
+      hasNewFrame = true;
+      captureTimestampSeconds = frameCaptureTimestampSeconds;
+      latencySeconds = frameLatencySeconds;
+      // Older firmware doesn't put the tag count in botpose, so it comes from the JSON results
+      numberOfAprilTags = botPose.length > BOTPOSE_TAG_COUNT_INDEX 
+        ? (int) botPose[BOTPOSE_TAG_COUNT_INDEX] : latestResults.targets_Fiducials.length;
+
+      // The limelight publishes an all zero pose when it can't see a tag
+      canSeeAprilTags = closestAprilTagID != -1 && botPose.length >= 6 && (botPose[0] != 0 || botPose[1] != 0);
+      if (canSeeAprilTags) {
+        pose = new Pose2d(botPose[0], botPose[1], Rotation2d.fromDegrees(botPose[5]));
+        distanceFromClosestAprilTag = getAprilTagDistance(pose, closestAprilTagID);
+        visionMeasurements.add(
+          new VisionMeasurement(pose, captureTimestampSeconds, numberOfAprilTags, distanceFromClosestAprilTag)
+        );
+      } else {
+        distanceFromClosestAprilTag = Double.MAX_VALUE;
+      }
+    }
+
+    // Older firmware needs the JSON results for every frame's tag count, newer firmware only for the occasional transmit delay sample
+    double timestampSeconds = Timer.getFPGATimestamp();
+    if (lastBotPose.length <= BOTPOSE_TAG_COUNT_INDEX
+      || (canSeeAprilTags && timestampSeconds - lastResultsRequestSeconds >= LimelightConstants.JSON_SAMPLE_PERIOD_SECONDS)) {
+      requestResults(timestampSeconds);
+    }
+    return hasNewFrame;
+  }
+
+  /**
+   * Returns true if the limelight could see an april tag in its newest frame.
+   */
+  public boolean canSeeAprilTags() {
+    return canSeeAprilTags;
+  }
+
+  /**
+   * Returns the newest robot pose with the origin in the blue alliance's corner.
+   */
+  public Pose2d getPose() {
+    return pose;
+  }
+
+  /**
+   * Returns the ID of the primary april tag in the newest frame, or -1 if there isn't one.
+   */
+  public int getClosestAprilTagID() {
+    return closestAprilTagID;
+  }
+
+  /**
+   * Returns the number of april tags in the newest frame.
+   */
+  public int getNumberOfAprilTags() {
+    return numberOfAprilTags;
+  }
+
+  /**
+   * Returns the distance in meters from the newest pose to the closest april tag, or a really
+   * big number if it can't see one.
+   */
+  public double getDistanceFromClosestAprilTag() {
+    return distanceFromClosestAprilTag;
+  }
+
+  /**
+   * Returns the FPGA time in seconds of when the newest frame was captured.
+   */
+  public double getCaptureTimestampSeconds() {
+    return captureTimestampSeconds;
+  }
+
+  /**
+   * Returns the total latency in seconds of the newest frame (pipeline plus capture).
+   */
+  public double getLatencySeconds() {
+    return latencySeconds;
+  }
+
+  private void requestResults(double timestampSeconds) {
+    lastResultsRequestSeconds = timestampSeconds;
+    if (resultsListener == null) {
+      // Parses the next dump by itself
+      resultsListener = new LimelightResultsListener(limelightName);
+    } else {
+      resultsListener.requestParse();
+    }
+  }
+
+  /**
+   * Learns the transmit delay from a frame if the newest JSON results are from it. ts_rio is the
+   * capture time on the FPGA clock in milliseconds, it's 0 if the limelight isn't synced to the
+   * roboRIO. It's only known for the frame the JSON results are from, so it's used to learn the
+   * transmit delay that every frame's estimate takes off, instead of stamping that one frame on a
+   * different clock than the others.
+   */
+  private void sampleTransmitDelay(double[] botPose, double frameDoneTimestampSeconds) {
+    if (latestResults.timestamp_RIOFPGA_capture > 0 && isSameFrame(botPose, latestResults)) {
+      transmitDelaySeconds = Math.min(
+        transmitDelaySeconds, Math.max(frameDoneTimestampSeconds - latestResults.timestamp_RIOFPGA_capture / 1000.0, 0)
+      );
+    }
+  }
+
+  private void clearAprilTags() {
+    canSeeAprilTags = false;
+    pose = new Pose2d();
+    closestAprilTagID = -1;
+    numberOfAprilTags = 0;
+    distanceFromClosestAprilTag = Double.MAX_VALUE;
+  }
+
+  /**
+   * Returns true if the JSON results were made from the same frame as the botpose, which is
+   * when they have the exact same pose.
+   */
+  private static boolean isSameFrame(double[] botPose, Results results) {
+    double[] resultsBotPose = results.botpose_wpiblue;
+    if (!results.valid || botPose.length < 6 || resultsBotPose.length < 6) {
+      return false;
+    }
+    for (int i = 0; i < 6; i++) {
+      if (botPose[i] != resultsBotPose[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static double getAprilTagDistance(Pose2d pose, int aprilTagID) {
+    if (aprilTagID < 1 || aprilTagID > LimelightConstants.APRIL_TAG_POSITIONS.length) {
+      return Double.MAX_VALUE;
+    }
+    double aprilTagX = LimelightConstants.APRIL_TAG_POSITIONS[aprilTagID - 1][0]; // April tag id starts at 1
+    double aprilTagY = LimelightConstants.APRIL_TAG_POSITIONS[aprilTagID - 1][1];
+    return Math.hypot(aprilTagX - pose.getX(), aprilTagY - pose.getY());
+  }
+
+  /**
+   * A queued entry the limelight publishes with every botpose, so each frame can get the value
+   * that came with it instead of the newest one.
+   */
+  private static final class QueuedDouble {
+    private final DoubleSubscriber subscriber;
+    private TimestampedDouble[] queue = new TimestampedDouble[0];
+    private int index = 0;
+    private double value;
+
+    private QueuedDouble(DoubleSubscriber subscriber, double defaultValue) {
+      this.subscriber = subscriber;
+      value = defaultValue;
+    }
+
+    /**
+     * Reads every update since the last call, this needs to be called before the frames are read.
+     */
+    private void readQueue() {
+      queue = subscriber.readQueue();
+      index = 0;
+    }
+
+    /**
+     * Returns the queued value published closest to the timestamp, since the limelight publishes
+     * a frame's entries at about the same time but not in any set order. If nothing was queued
+     * this loop, the last value is kept. The frames have to be asked for in order.
+     * @param timestampMicroseconds The NetworkTables timestamp of the frame.
+     */
+    private double getValueNearest(long timestampMicroseconds) {
+      if (queue.length == 0) {
+        return value;
+      }
+      while (index + 1 < queue.length
+        && Math.abs(queue[index + 1].timestamp - timestampMicroseconds) <= Math.abs(queue[index].timestamp - timestampMicroseconds)) {
+        index++;
+      }
+      value = queue[index].value;
+      return value;
+    }
+  }
+}
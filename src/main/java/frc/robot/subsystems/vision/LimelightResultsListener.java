@@ -0,0 +1,90 @@
+package frc.robot.subsystems.vision;
+
+import java.util.EnumSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringSubscriber;
+import frc.robot.extras.LimelightHelpers;
+import frc.robot.extras.LimelightResultsParser;
+import frc.robot.extras.LimelightHelpers.LimelightResults;
+
+/**
+ * Parses a limelight's JSON results dump on a background thread, but only the next dump the
+ * limelight publishes after a parse is requested, since most frames don't need them. The main
+ * loop only ever reads the last finished result, so it never waits on the parse.
+ */
+public class LimelightResultsListener {
+
+  private final StringSubscriber jsonSubscriber;
+  private final ExecutorService parseExecutor;
+  // Set until the next dump arrives after requestParse, starts set so the first dump is parsed
+  private final AtomicBoolean isParseRequested = new AtomicBoolean(true);
+  // Triple buffered: the parse thread fills its back buffer in place, then swaps it with the middle
+  // buffer. The main loop swaps its front buffer with the middle one when there is something new.
+  // Neither side ever touches a buffer the other one owns, so nothing is locked or copied.
+  private final LimelightResultsParser[] buffers = {
+    new LimelightResultsParser(), new LimelightResultsParser(), new LimelightResultsParser()
+  };
+  // The index of the middle buffer, plus NEW_RESULTS_FLAG if it was written since the main loop last took it
+  private final AtomicInteger middleBufferState = new AtomicInteger(0);
+  private int backBufferIndex = 1;
+  private int frontBufferIndex = 2;
+
+  private static final int BUFFER_INDEX_MASK = 0b011;
+  private static final int NEW_RESULTS_FLAG = 0b100;
+
+  /**
+   * Starts listening to the specified limelight's JSON results. The next dump it publishes is parsed.
+   * @param limelightName The name of the limelight's NetworkTables table.
+   */
+  public LimelightResultsListener(String limelightName) {
+    jsonSubscriber = LimelightHelpers.getLimelightNTTable(limelightName).getStringTopic("json").subscribe("");
+    parseExecutor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread parseThread = new Thread(runnable, "Limelight parser " + limelightName);
+      parseThread.setDaemon(true);
+      return parseThread;
+    });
+
+    NetworkTableInstance.getDefault().addListener(
+      jsonSubscriber,
+      EnumSet.of(NetworkTableEvent.Kind.kValueAll),
+      event -> {
+        if (isParseRequested.getAndSet(false)) {
+          parseExecutor.execute(this::parse);
+        }
+      }
+    );
+  }
+
+  /**
+   * Parses the next dump the limelight publishes. Asking again before it arrives doesn't parse
+   * more than one.
+   */
+  public void requestParse() {
+    isParseRequested.set(true);
+  }
+
+  /**
+   * Returns the results parsed since the last call, or null if nothing new was parsed. This
+   * doesn't parse anything. The returned results won't change until the next call that doesn't
+   * return null, so this should only be called from one thread.
+   */
+  public LimelightResults getNewResults() {
+    if ((middleBufferState.get() & NEW_RESULTS_FLAG) == 0) {
+      return null;
+    }
+    // Taking the middle buffer also clears the flag
+    frontBufferIndex = middleBufferState.getAndSet(frontBufferIndex) & BUFFER_INDEX_MASK;
+    return buffers[frontBufferIndex].getResults();
+  }
+
+  private void parse() {
+    buffers[backBufferIndex].parse(jsonSubscriber.get());
+    backBufferIndex = middleBufferState.getAndSet(backBufferIndex | NEW_RESULTS_FLAG) & BUFFER_INDEX_MASK;
+  }
+}
@@ -0,0 +1,44 @@
+package frc.robot.subsystems.vision;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+/**
+ * A robot pose calculated by one limelight from one frame.
+ */
+public class VisionMeasurement {
+
+  private final Pose2d pose;
+  private final double captureTimestampSeconds;
+  private final int numberOfAprilTags;
+  private final double distanceFromClosestAprilTag;
+
+  /**
+   * @param pose The robot pose with the origin in the blue alliance's corner.
+   * @param captureTimestampSeconds The FPGA time in seconds of when the frame was captured.
+   * @param numberOfAprilTags How many april tags the pose was calculated from.
+   * @param distanceFromClosestAprilTag The distance in meters from the pose to the closest april tag.
+   */
+  public VisionMeasurement(Pose2d pose, double captureTimestampSeconds, int numberOfAprilTags,
+      double distanceFromClosestAprilTag) {
+    this.pose = pose;
+    this.captureTimestampSeconds = captureTimestampSeconds;
+    this.numberOfAprilTags = numberOfAprilTags;
+    this.distanceFromClosestAprilTag = distanceFromClosestAprilTag;
+  }
+
+  public Pose2d getPose() {
+    return pose;
+  }
+
+  public double getCaptureTimestampSeconds() {
+    return captureTimestampSeconds;
+  }
+
+  public int getNumberOfAprilTags() {
+    return numberOfAprilTags;
+  }
+
+  public double getDistanceFromClosestAprilTag() {
+    return distanceFromClosestAprilTag;
+  }
+}
@@ -1,5 +1,7 @@
 package frc.robot.subsystems.vision;
 
+import java.util.List;
+
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.wpilibj2.command.Subsystem;
@@ -31,18 +33,26 @@ public interface VisionSubsystem extends Subsystem {
   int getNumberOfAprilTags();
 
   /**
-   * Returns the timestamp in seconds of when the limelight that is being
-   * used for pose estimation calculated the robot's pose. 
+   * Returns the FPGA timestamp in seconds of when the limelight that is
+   * being used for pose estimation captured the frame it calculated the
+   * robot's pose from.
    */
   double getTimeStampSeconds();
 
   /**
    * Returns the latency in seconds of when the limelight that is being
    * used for pose estimation calculated the robot's pose. It adds the
-   * pipeline latency, capture latency, and json parsing latency.
+   * pipeline latency and capture latency.
    */
   double getLatencySeconds();
 
+  /**
+   * Returns every pose measurement from all of the limelights that came in
+   * since the last periodic, oldest first for each limelight. Frames that
+   * were already reported or couldn't see april tags are left out.
+   */
+  List<VisionMeasurement> getNewVisionMeasurements();
+
   /**
    * Returns true if the limelight(s) can see one or more cubes.
    */
@@ -1,69 +1,70 @@
 package frc.robot.subsystems.vision;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import edu.wpi.first.math.geometry.Pose2d;
-import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.LimelightConstants;
-import frc.robot.Constants.TrajectoryConstants;
 import frc.robot.extras.LimelightHelpers;
+import frc.robot.extras.OnRobotLogger;
 import frc.robot.extras.SmartDashboardLogger;
-import frc.robot.extras.LimelightHelpers.LimelightResults;
-import frc.robot.extras.LimelightHelpers.LimelightTarget_Fiducial;
+import frc.robot.subsystems.ProfiledSubsystemBase;
+
+public class VisionSubsystemImpl extends ProfiledSubsystemBase implements VisionSubsystem {
+
+  // Localization only needs the compact botpose entries, which are much cheaper to read than the JSON dump
+  private final LimelightPoseSubscriber frontLimelightPoseSubscriber;
+  private final LimelightPoseSubscriber backLimelightPoseSubscriber;
 
-public class VisionSubsystemImpl extends SubsystemBase implements VisionSubsystem {
+  // Every new measurement from both limelights, refilled each periodic
+  private final List<VisionMeasurement> newVisionMeasurements = new ArrayList<>();
+  private final List<VisionMeasurement> newVisionMeasurementsView = Collections.unmodifiableList(newVisionMeasurements);
+  // x, y, rotation in radians, capture timestamp, number of april tags and distance from the closest one
+  private final double[] loggedVisionMeasurement = new double[6];
 
-  private LimelightResults currentlyUsedLimelightResults;
-  private LimelightResults frontLimelightResults = LimelightHelpers.getLatestResults(LimelightConstants.FRONT_LIMELIGHT_NAME);;
-  private LimelightResults backLimelightResults = LimelightHelpers.getLatestResults(LimelightConstants.BACK_LIMELIGHT_NAME);;
-  private String currentlyUsedLimelight = LimelightConstants.FRONT_LIMELIGHT_NAME;
-  private boolean wasFrontLimelightUsedLast = false;
+  private LimelightPoseSubscriber currentlyUsedLimelightPoseSubscriber;
   
   public VisionSubsystemImpl() {
-    currentlyUsedLimelightResults = LimelightHelpers.getLatestResults(LimelightConstants.FRONT_LIMELIGHT_NAME);
+    frontLimelightPoseSubscriber = new LimelightPoseSubscriber(LimelightConstants.FRONT_LIMELIGHT_NAME);
+    backLimelightPoseSubscriber = new LimelightPoseSubscriber(LimelightConstants.BACK_LIMELIGHT_NAME);
+    currentlyUsedLimelightPoseSubscriber = frontLimelightPoseSubscriber;
   }
 
   @Override
   public boolean canSeeAprilTags() {
-    return LimelightHelpers.getFiducialID(currentlyUsedLimelight) != -1;
+    return frontLimelightPoseSubscriber.canSeeAprilTags() || backLimelightPoseSubscriber.canSeeAprilTags();
   }
 
   @Override
   public Pose2d getPoseFromAprilTags() {
-    Pose2d botPose = LimelightHelpers.getBotPose2d(currentlyUsedLimelight);
-    // The origin of botpose is at the center of the field
-    double robotX = botPose.getX() + TrajectoryConstants.FIELD_LENGTH_METERS / 2;
-    double robotY = botPose.getY() + TrajectoryConstants.FIELD_WIDTH_METERS / 2;
-    Rotation2d robotRotation = botPose.getRotation();
-    return new Pose2d(robotX, robotY, robotRotation);
+    return currentlyUsedLimelightPoseSubscriber.getPose();
   }
 
   @Override
   public double getDistanceFromClosestAprilTag() {
-    if (canSeeAprilTags()) {
-      int closestAprilTagID = (int) LimelightHelpers.getFiducialID(currentlyUsedLimelight);
-      return getLimelightAprilTagDistance(closestAprilTagID);
-    }
-    
-    // To be safe returns a big distance from the april tags
-    return Double.MAX_VALUE;
+    return currentlyUsedLimelightPoseSubscriber.getDistanceFromClosestAprilTag();
   }
 
   @Override
   public int getNumberOfAprilTags() {
-    return currentlyUsedLimelightResults.targetingResults.targets_Fiducials.length;
+    return currentlyUsedLimelightPoseSubscriber.getNumberOfAprilTags();
+  }
+
+  @Override
+  public List<VisionMeasurement> getNewVisionMeasurements() {
+    return newVisionMeasurementsView;
   }
 
   @Override
   public double getTimeStampSeconds() {
-    return currentlyUsedLimelightResults.targetingResults.timestamp_LIMELIGHT_publish / 1000.0;
+    return currentlyUsedLimelightPoseSubscriber.getCaptureTimestampSeconds();
   }
 
   @Override
   public double getLatencySeconds() {
-    return (currentlyUsedLimelightResults.targetingResults.latency_capture 
-    + currentlyUsedLimelightResults.targetingResults.latency_pipeline 
-    + currentlyUsedLimelightResults.targetingResults.latency_jsonParse) / 1000.0;
+    return currentlyUsedLimelightPoseSubscriber.getLatencySeconds();
   }
 
   @Override
@@ -106,51 +107,21 @@ public class VisionSubsystemImpl extends SubsystemBase implements VisionSubsyste
     LimelightHelpers.setPipelineIndex(LimelightConstants.FRONT_LIMELIGHT_NAME, limelightPipeline.getID());
   }
 
-  /**
-   * Calculates the distance between the specified robot and april tag.
-   * This method should only be called once there has been a check for if
-   * the limelights can see april tags.
-   */
-  private double getLimelightAprilTagDistance(int aprilTagID) {
-    if (aprilTagID >= 1) {
-      double aprilTagX = LimelightConstants.APRIL_TAG_POSITIONS[aprilTagID - 1][0]; // April tag id starts at 1
-      double aprilTagY = LimelightConstants.APRIL_TAG_POSITIONS[aprilTagID - 1][1];
-      // Added a little optimization
-      Pose2d pose = getPoseFromAprilTags();
-      double robotX = pose.getX();
-      double robotY = pose.getY();
-      return Math.sqrt(Math.pow(aprilTagX - robotX, 2) + Math.pow(aprilTagY - robotY, 2));
-    }
-
-    // To be safe returns a big distance from the april tags
-    return Double.MAX_VALUE;
-  }
-
   @Override
-  public void periodic() {
-    // Every periodic chooses the limelight to use based off of their distance from april tags
-    if (wasFrontLimelightUsedLast) {
-      backLimelightResults = LimelightHelpers.getLatestResults(LimelightConstants.BACK_LIMELIGHT_NAME);
-    } else {
-      frontLimelightResults = LimelightHelpers.getLatestResults(LimelightConstants.FRONT_LIMELIGHT_NAME);
+  protected void profiledPeriodic() {
+    // Collects every new frame from both limelights
+    newVisionMeasurements.clear();
+    frontLimelightPoseSubscriber.update(newVisionMeasurements);
+    backLimelightPoseSubscriber.update(newVisionMeasurements);
+    for (int i = 0; i < newVisionMeasurements.size(); i++) {
+      logVisionMeasurement(newVisionMeasurements.get(i));
     }
 
-    wasFrontLimelightUsedLast = !wasFrontLimelightUsedLast;
-
-    LimelightTarget_Fiducial[] frontLimelightAprilTags = frontLimelightResults.targetingResults.targets_Fiducials;
-    LimelightTarget_Fiducial[] backLimelightAprilTags = backLimelightResults.targetingResults.targets_Fiducials;
-
-    // Gets the distance from the closest april tag. If it can't see one, returns a really big number.
-    double frontLimelightDistance = frontLimelightAprilTags.length > 0
-      ? getLimelightAprilTagDistance((int) frontLimelightAprilTags[0].fiducialID) : Double.MAX_VALUE;
-    double backLimelightDistance = backLimelightAprilTags.length > 0
-      ? getLimelightAprilTagDistance((int) backLimelightAprilTags[0].fiducialID) : Double.MAX_VALUE;
-
-    currentlyUsedLimelight = frontLimelightDistance <= backLimelightDistance 
-      ? LimelightConstants.FRONT_LIMELIGHT_NAME : LimelightConstants.BACK_LIMELIGHT_NAME;
-    currentlyUsedLimelightResults = currentlyUsedLimelight == LimelightConstants.FRONT_LIMELIGHT_NAME
-      ? frontLimelightResults : backLimelightResults;
-    SmartDashboardLogger.infoString("Limelight Pos", getPoseFromAprilTags().toString());
+    // The single pose getters use the limelight that is closest to an april tag
+    currentlyUsedLimelightPoseSubscriber = 
+      frontLimelightPoseSubscriber.getDistanceFromClosestAprilTag() <= backLimelightPoseSubscriber.getDistanceFromClosestAprilTag()
+      ? frontLimelightPoseSubscriber : backLimelightPoseSubscriber;
+    SmartDashboardLogger.infoString("Limelight Pos", getPoseFromAprilTags());
 
     // Flashes the limelight LEDs if they can't see an april tag
     if (!canSeeAprilTags()) {
@@ -162,4 +133,21 @@ public class VisionSubsystemImpl extends SubsystemBase implements VisionSubsyste
     }
   }
 
+  /**
+   * Writes a measurement to the on-robot log, the timestamp in the log is when it was
+   * received and the capture timestamp is in the values.
+   */
+  private void logVisionMeasurement(VisionMeasurement visionMeasurement) {
+    if (!OnRobotLogger.isRunning()) {
+      return;
+    }
+    Pose2d pose = visionMeasurement.getPose();
+    loggedVisionMeasurement[0] = pose.getX();
+    loggedVisionMeasurement[1] = pose.getY();
+    loggedVisionMeasurement[2] = pose.getRotation().getRadians();
+    loggedVisionMeasurement[3] = visionMeasurement.getCaptureTimestampSeconds();
+    loggedVisionMeasurement[4] = visionMeasurement.getNumberOfAprilTags();
+    loggedVisionMeasurement[5] = visionMeasurement.getDistanceFromClosestAprilTag();
+    OnRobotLogger.logNumbers("Vision/Measurements", loggedVisionMeasurement);
+  }
 }
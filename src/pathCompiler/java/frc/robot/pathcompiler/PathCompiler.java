@@ -0,0 +1,49 @@
+package frc.robot.pathcompiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+
+import frc.robot.Constants.TrajectoryConstants;
+import frc.robot.extras.CompiledTrajectories;
+
+/**
+ * Generates every PathPlanner path in the deploy directory and writes it as a compiled trajectory.
+ * This is run by the compilePathPlannerTrajectories Gradle task from the project directory, which
+ * is where PathPlanner looks for src/main/deploy when it isn't on a robot.
+ */
+public final class PathCompiler {
+
+  private PathCompiler() {}
+
+  /**
+   * @param args The .path file directory and the directory to write the compiled trajectories to.
+   */
+  public static void main(String[] args) throws IOException {
+    File pathDirectory = new File(args[0]);
+    Path outputDirectory = new File(args[1]).toPath();
+
+    File[] pathFiles = pathDirectory.listFiles((directory, name) -> name.endsWith(".path"));
+    if (pathFiles == null) {
+      throw new IOException("Couldn't list the paths in " + pathDirectory);
+    }
+
+    for (File pathFile : pathFiles) {
+      String pathName = pathFile.getName().substring(0, pathFile.getName().length() - ".path".length());
+      PathPlannerTrajectory trajectory = PathPlanner.loadPath(
+        pathName, TrajectoryConstants.DEPLOYED_PATH_MAX_VELOCITY, TrajectoryConstants.DEPLOYED_PATH_MAX_ACCELERATION
+      );
+      CompiledTrajectories.write(
+        trajectory,
+        CompiledTrajectories.getChecksum(pathFile.toPath()),
+        TrajectoryConstants.DEPLOYED_PATH_MAX_VELOCITY,
+        TrajectoryConstants.DEPLOYED_PATH_MAX_ACCELERATION,
+        outputDirectory.resolve(pathName + CompiledTrajectories.FILE_EXTENSION)
+      );
+      System.out.println("Compiled " + pathName + " (" + trajectory.getStates().size() + " states)");
+    }
+  }
+}
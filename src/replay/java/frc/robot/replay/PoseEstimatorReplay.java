@@ -0,0 +1,290 @@
+package frc.robot.replay;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import frc.robot.commands.VisionMeasurementGate;
+import frc.robot.subsystems.drive.DriveSubsystemImpl;
+import frc.robot.subsystems.drive.PoseEstimatorLog;
+import frc.robot.subsystems.vision.VisionMeasurement;
+
+/**
+ * Runs the pose estimator again on the inputs in an on-robot log, using the same pose estimator
+ * setup as DriveSubsystemImpl and the same vision gating and lookup tables as DriveCommandBase.
+ * It reports how far the replayed pose is from the pose the robot estimated, how far the added
+ * vision measurements were from the estimate, and how fast it ran. Change the lookup tables or the
+ * estimator and run it again on the same log to compare. The replay assumes a DriveCommandBase
+ * command was running, since that's the only time vision measurements are logged.
+ * This is run by the replayPoseEstimator Gradle task.
+ */
+public final class PoseEstimatorReplay {
+
+  private static final int RESET = 0;
+  private static final int ODOMETRY_SAMPLE = 1;
+  private static final int CAN_SEE_APRIL_TAGS = 2;
+  private static final int VISION_MEASUREMENT = 3;
+  private static final int ESTIMATED_POSE = 4;
+
+  // How far the replayed pose can be from the robot's for the replay to match it, only rounding is allowed
+  private static final double MATCH_TOLERANCE_METERS = 1e-6;
+  private static final double MATCH_TOLERANCE_DEGREES = 1e-6;
+
+  private PoseEstimatorReplay() {}
+
+  /**
+   * @param args The .wpilog file, then optionally how many times to replay it (the timing uses the fastest run),
+   * then optionally true to exit with an error if the replayed pose doesn't match the robot's. Use that with
+   * the same code the log was recorded with to check that the replay reproduces the robot.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.err.println(
+        "Usage: ./gradlew replayPoseEstimator -PreplayLog=<log.wpilog> [-PreplayIterations=<count>] [-PreplayCheck=true]"
+      );
+      System.exit(1);
+    }
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+    boolean shouldCheckMatch = args.length > 2 && Boolean.parseBoolean(args[2]);
+
+    List<ReplayEvent> events = readEvents(args[0]);
+    System.out.println("Read " + events.size() + " pose estimator inputs from " + args[0]);
+
+    ReplayResult result = null;
+    long fastestRunNanoseconds = Long.MAX_VALUE;
+    for (int i = 0; i < iterations; i++) {
+      long startNanoseconds = System.nanoTime();
+      result = replay(events);
+      fastestRunNanoseconds = Math.min(fastestRunNanoseconds, System.nanoTime() - startNanoseconds);
+    }
+    result.print(fastestRunNanoseconds);
+    if (shouldCheckMatch && !result.matchesRobot()) {
+      System.err.println("The replayed pose doesn't match the robot's estimated pose");
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Reads every pose estimator input from the log, in the order they were logged.
+   */
+  private static List<ReplayEvent> readEvents(String logPath) throws IOException {
+    Map<String, Integer> eventTypes = new HashMap<>();
+    eventTypes.put(PoseEstimatorLog.RESET_KEY, RESET);
+    eventTypes.put(PoseEstimatorLog.ODOMETRY_SAMPLE_KEY, ODOMETRY_SAMPLE);
+    eventTypes.put(PoseEstimatorLog.CAN_SEE_APRIL_TAGS_KEY, CAN_SEE_APRIL_TAGS);
+    eventTypes.put(PoseEstimatorLog.VISION_MEASUREMENT_KEY, VISION_MEASUREMENT);
+    eventTypes.put(PoseEstimatorLog.ESTIMATED_POSE_KEY, ESTIMATED_POSE);
+
+    DataLogReader reader = new DataLogReader(logPath);
+    if (!reader.isValid()) {
+      throw new IOException(logPath + " isn't a valid data log");
+    }
+
+    // Entry IDs are only known once their start record has been read
+    Map<Integer, Integer> eventTypesByEntry = new HashMap<>();
+    List<ReplayEvent> events = new ArrayList<>();
+    for (DataLogRecord record : reader) {
+      if (record.isStart()) {
+        DataLogRecord.StartRecordData startData = record.getStartData();
+        Integer eventType = eventTypes.get(startData.name);
+        if (eventType != null) {
+          eventTypesByEntry.put(startData.entry, eventType);
+        }
+      } else if (!record.isControl()) {
+        Integer eventType = eventTypesByEntry.get(record.getEntry());
+        if (eventType != null) {
+          events.add(
+            eventType == CAN_SEE_APRIL_TAGS
+              ? new ReplayEvent(eventType, null, record.getBoolean())
+              : new ReplayEvent(eventType, record.getDoubleArray(), false)
+          );
+        }
+      }
+    }
+    return events;
+  }
+
+  /**
+   * Runs the inputs through the pose estimator, the same way DriveSubsystemImpl and DriveCommandBase do.
+   */
+  private static ReplayResult replay(List<ReplayEvent> events) {
+    ReplayResult result = new ReplayResult();
+    VisionMeasurementGate visionMeasurementGate = new VisionMeasurementGate();
+    SwerveDrivePoseEstimator poseEstimator = null;
+    SwerveModulePosition[] modulePositions = {
+      new SwerveModulePosition(), new SwerveModulePosition(), new SwerveModulePosition(), new SwerveModulePosition()
+    };
+    double[] standardDeviations = new double[3];
+    boolean shouldAddVisionMeasurements = false;
+
+    for (ReplayEvent event : events) {
+      double[] values = event.values;
+      switch (event.type) {
+        case RESET:
+          Pose2d resetPose = new Pose2d(values[0], values[1], new Rotation2d(values[2]));
+          setModulePositions(modulePositions, values, 4);
+          if (poseEstimator == null) {
+            poseEstimator = DriveSubsystemImpl.createPoseEstimator(Rotation2d.fromDegrees(values[3]), modulePositions, resetPose);
+          } else {
+            poseEstimator.resetPosition(Rotation2d.fromDegrees(values[3]), modulePositions, resetPose);
+          }
+          result.resetCount++;
+          break;
+        case ODOMETRY_SAMPLE:
+          if (poseEstimator == null) {
+            break;
+          }
+          setModulePositions(modulePositions, values, 2);
+          poseEstimator.updateWithTime(values[0], Rotation2d.fromDegrees(values[1]), modulePositions);
+          result.odometrySampleCount++;
+          result.firstTimestampSeconds = Math.min(result.firstTimestampSeconds, values[0]);
+          result.lastTimestampSeconds = Math.max(result.lastTimestampSeconds, values[0]);
+          break;
+        case CAN_SEE_APRIL_TAGS:
+          shouldAddVisionMeasurements = visionMeasurementGate.update(event.booleanValue);
+          break;
+        case VISION_MEASUREMENT:
+          result.visionMeasurementCount++;
+          if (poseEstimator == null || !shouldAddVisionMeasurements) {
+            break;
+          }
+          VisionMeasurement visionMeasurement = new VisionMeasurement(
+            new Pose2d(values[0], values[1], new Rotation2d(values[2])), values[3], (int) values[4], values[5]
+          );
+          visionMeasurementGate.getStandardDeviations(visionMeasurement, standardDeviations);
+          poseEstimator.setVisionMeasurementStdDevs(
+            VecBuilder.fill(standardDeviations[0], standardDeviations[1], standardDeviations[2])
+          );
+          result.addVisionResidual(visionMeasurement.getPose(), poseEstimator.getEstimatedPosition());
+          poseEstimator.addVisionMeasurement(visionMeasurement.getPose(), visionMeasurement.getCaptureTimestampSeconds());
+          break;
+        case ESTIMATED_POSE:
+          if (poseEstimator != null) {
+            result.addPoseError(new Pose2d(values[0], values[1], new Rotation2d(values[2])), poseEstimator.getEstimatedPosition());
+          }
+          break;
+        default:
+          break;
+      }
+    }
+    return result;
+  }
+
+  private static void setModulePositions(SwerveModulePosition[] modulePositions, double[] values, int firstIndex) {
+    for (int i = 0; i < modulePositions.length; i++) {
+      modulePositions[i].distanceMeters = values[firstIndex + i];
+      modulePositions[i].angle = Rotation2d.fromDegrees(values[firstIndex + 4 + i]);
+    }
+  }
+
+  /**
+   * One logged input, its values are laid out the way PoseEstimatorLog describes.
+   */
+  private static final class ReplayEvent {
+    private final int type;
+    private final double[] values;
+    private final boolean booleanValue;
+
+    private ReplayEvent(int type, double[] values, boolean booleanValue) {
+      this.type = type;
+      this.values = values;
+      this.booleanValue = booleanValue;
+    }
+  }
+
+  /**
+   * The counts and errors from one replay.
+   */
+  private static final class ReplayResult {
+    private int resetCount = 0;
+    private int odometrySampleCount = 0;
+    private int visionMeasurementCount = 0;
+    private double firstTimestampSeconds = Double.POSITIVE_INFINITY;
+    private double lastTimestampSeconds = Double.NEGATIVE_INFINITY;
+
+    private final ErrorStatistics poseTranslationError = new ErrorStatistics();
+    private final ErrorStatistics poseRotationErrorDegrees = new ErrorStatistics();
+    private final ErrorStatistics visionTranslationResidual = new ErrorStatistics();
+    private final ErrorStatistics visionRotationResidualDegrees = new ErrorStatistics();
+
+    private void addPoseError(Pose2d recordedPose, Pose2d replayedPose) {
+      poseTranslationError.add(recordedPose.getTranslation().getDistance(replayedPose.getTranslation()));
+      poseRotationErrorDegrees.add(getRotationErrorDegrees(recordedPose, replayedPose));
+    }
+
+    private void addVisionResidual(Pose2d visionPose, Pose2d estimatedPose) {
+      visionTranslationResidual.add(visionPose.getTranslation().getDistance(estimatedPose.getTranslation()));
+      visionRotationResidualDegrees.add(getRotationErrorDegrees(visionPose, estimatedPose));
+    }
+
+    /**
+     * Returns if the replayed pose was the robot's estimated pose every loop, give or take rounding.
+     */
+    private boolean matchesRobot() {
+      return poseTranslationError.count > 0
+        && poseTranslationError.max <= MATCH_TOLERANCE_METERS
+        && poseRotationErrorDegrees.max <= MATCH_TOLERANCE_DEGREES;
+    }
+
+    private static double getRotationErrorDegrees(Pose2d firstPose, Pose2d secondPose) {
+      return Math.toDegrees(
+        Math.abs(MathUtil.angleModulus(firstPose.getRotation().getRadians() - secondPose.getRotation().getRadians()))
+      );
+    }
+
+    private void print(long runNanoseconds) {
+      double runSeconds = runNanoseconds / 1e9;
+      double loggedSeconds = odometrySampleCount > 0 ? lastTimestampSeconds - firstTimestampSeconds : 0;
+
+      System.out.println("Resets: " + resetCount + ", odometry samples: " + odometrySampleCount
+        + ", vision measurements: " + visionMeasurementCount + " (" + visionTranslationResidual.count + " added)");
+      System.out.println("Replayed pose vs robot's estimated pose (" + poseTranslationError.count + " loops):");
+      System.out.println("  translation RMS " + format(poseTranslationError.getRms()) + " m, max "
+        + format(poseTranslationError.max) + " m");
+      System.out.println("  rotation RMS " + format(poseRotationErrorDegrees.getRms()) + " deg, max "
+        + format(poseRotationErrorDegrees.max) + " deg");
+      System.out.println("  " + (matchesRobot() ? "matches" : "doesn't match") + " the robot's estimate");
+      System.out.println("Added vision measurements vs the estimate when they were added:");
+      System.out.println("  translation RMS " + format(visionTranslationResidual.getRms()) + " m, max "
+        + format(visionTranslationResidual.max) + " m");
+      System.out.println("  rotation RMS " + format(visionRotationResidualDegrees.getRms()) + " deg, max "
+        + format(visionRotationResidualDegrees.max) + " deg");
+      System.out.println("Replayed " + format(loggedSeconds) + " s of match in " + format(runSeconds * 1000) + " ms ("
+        + format(loggedSeconds / runSeconds) + "x real time, "
+        + format(odometrySampleCount / runSeconds) + " odometry samples/s)");
+    }
+
+    private static String format(double value) {
+      return String.format("%.4f", value);
+    }
+  }
+
+  /**
+   * The RMS and max of a set of errors.
+   */
+  private static final class ErrorStatistics {
+    private int count = 0;
+    private double sumOfSquares = 0;
+    private double max = 0;
+
+    private void add(double error) {
+      count++;
+      sumOfSquares += error * error;
+      max = Math.max(max, error);
+    }
+
+    private double getRms() {
+      return count > 0 ? Math.sqrt(sumOfSquares / count) : 0;
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package frc.robot.extras;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompiledLinearInterpolatorTest {
+
+    private static final double[][] LOOKUP_TABLE = {
+        // {x, y1, y2, y3}
+        {0, 0.01, 0.01, 10},
+        {1.5, 0.01, 0.01, 10},
+        {3, 0.145, 1.20, 30},
+        {4.5, 0.75, 5.0, 90},
+        {6, 1.0, 8.0, 180}
+    };
+
+    private static final double[][] DUPLICATE_X_LOOKUP_TABLE = {
+        {0, 0, 1},
+        {1, 1, 2},
+        {1, 5, -2},
+        {1, 7, 3},
+        {2, 6, 4},
+        {3, 9, 0},
+        {3, 2, 8}
+    };
+
+    private static final double[][] TWO_ROW_LOOKUP_TABLE = {
+        {-1, 4, 0},
+        {1, -4, 2}
+    };
+
+    private static final double[][] ONE_ROW_LOOKUP_TABLE = {
+        {2, 3, 5}
+    };
+
+    private static final double TOLERANCE = 1e-9;
+
+    private static final int RANDOM_QUERY_COUNT = 10000;
+
+    @Test
+    void random_queries() {
+        assertMatchesRandomQueries(LOOKUP_TABLE);
+    }
+
+    @Test
+    void random_queries_duplicate_x() {
+        assertMatchesRandomQueries(DUPLICATE_X_LOOKUP_TABLE);
+    }
+
+    @Test
+    void random_queries_two_rows() {
+        assertMatchesRandomQueries(TWO_ROW_LOOKUP_TABLE);
+    }
+
+    @Test
+    void random_queries_one_row() {
+        assertMatchesRandomQueries(ONE_ROW_LOOKUP_TABLE);
+    }
+
+    @Test
+    void table_points() {
+        for (double[][] lookupTable : new double[][][] {LOOKUP_TABLE, DUPLICATE_X_LOOKUP_TABLE, TWO_ROW_LOOKUP_TABLE}) {
+            CompiledLinearInterpolator interpolator = new CompiledLinearInterpolator(lookupTable);
+            // Forwards then backwards, so the cursor moves both ways
+            for (int i = 0; i < lookupTable.length; i++) {
+                assertMatches(lookupTable, interpolator, lookupTable[i][0]);
+            }
+            for (int i = lookupTable.length - 1; i >= 0; i--) {
+                assertMatches(lookupTable, interpolator, lookupTable[i][0]);
+            }
+        }
+    }
+
+    @Test
+    void first_row_at_duplicate_x() {
+        CompiledLinearInterpolator interpolator = new CompiledLinearInterpolator(DUPLICATE_X_LOOKUP_TABLE);
+        assertEquals(1, interpolator.getLookupValue(1), TOLERANCE);
+        assertEquals(9, interpolator.getLookupValue(3), TOLERANCE);
+        assertEquals(2, interpolator.getLookupValue(3.5), TOLERANCE);
+    }
+
+    @Test
+    void walking_then_jumping_back() {
+        CompiledLinearInterpolator interpolator = new CompiledLinearInterpolator(LOOKUP_TABLE);
+        for (double x = -1; x <= 7; x += 0.01) {
+            assertMatches(LOOKUP_TABLE, interpolator, x);
+        }
+        for (double x : new double[] {0.5, 5.9, 0.2, 6, 0, 3, 2.99, 4.51, -2, 1.5, 1.49}) {
+            assertMatches(LOOKUP_TABLE, interpolator, x);
+        }
+    }
+
+    private static void assertMatchesRandomQueries(double[][] lookupTable) {
+        CompiledLinearInterpolator interpolator = new CompiledLinearInterpolator(lookupTable);
+        double minimumX = lookupTable[0][0] - 1;
+        double maximumX = lookupTable[lookupTable.length - 1][0] + 1;
+        Random random = new Random(2023);
+        for (int i = 0; i < RANDOM_QUERY_COUNT; i++) {
+            assertMatches(lookupTable, interpolator, minimumX + random.nextDouble() * (maximumX - minimumX));
+        }
+    }
+
+    private static void assertMatches(double[][] lookupTable, CompiledLinearInterpolator interpolator, double x) {
+        double[] output = new double[interpolator.getOutputCount()];
+        interpolator.getLookupValues(x, output);
+        for (int j = 0; j < output.length; j++) {
+            double expected = interpolate(lookupTable, x, j);
+            assertEquals(expected, interpolator.getLookupValue(x, j), TOLERANCE, "Output " + j + " at x = " + x);
+            assertEquals(expected, output[j], TOLERANCE, "Output " + j + " at x = " + x);
+        }
+    }
+
+    /**
+     * Linear interpolation the simplest way, the same as SingleLinearInterpolator.
+     */
+    private static double interpolate(double[][] lookupTable, double x, int outputIndex) {
+        if (x < lookupTable[0][0]) {
+            return lookupTable[0][outputIndex + 1];
+        } else if (x > lookupTable[lookupTable.length - 1][0]) {
+            return lookupTable[lookupTable.length - 1][outputIndex + 1];
+        }
+        for (int i = 0; i < lookupTable.length; i++) {
+            if (x == lookupTable[i][0]) {
+                return lookupTable[i][outputIndex + 1];
+            } else if (x > lookupTable[i][0] && x < lookupTable[i + 1][0]) {
+                double fraction = (x - lookupTable[i][0]) / (lookupTable[i + 1][0] - lookupTable[i][0]);
+                return lookupTable[i][outputIndex + 1] + (lookupTable[i + 1][outputIndex + 1] - lookupTable[i][outputIndex + 1]) * fraction;
+            }
+        }
+        throw new IllegalStateException("x = " + x + " isn't in the table");
+    }
+
+}
@@ -0,0 +1,106 @@
+package frc.robot.extras;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import frc.robot.extras.LimelightHelpers.LimelightResults;
+import frc.robot.extras.LimelightHelpers.LimelightTarget_Fiducial;
+import frc.robot.extras.LimelightHelpers.Results;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimelightResultsParserTest {
+
+    // The same dumps the limelight benchmark parses
+    private static final Path DUMP_DIRECTORY = Path.of("src", "jmh", "resources", "limelight");
+
+    private static final String THREE_TAGS_JSON =
+        "{\"Results\":{\"Fiducial\":["
+        + fiducialJson(1, "16H5C", 0.1) + ","
+        + fiducialJson(2, "16H5C", 0.2) + ","
+        + fiducialJson(3, "16H5C", 0.3)
+        + "],\"botpose\":[1,2,3,4,5,6],\"cl\":11.0,\"pID\":0.0,\"tl\":20.5,\"ts\":100.0,\"ts_rio\":5.0,\"v\":1}}";
+
+    // The only tag is missing most of its fields, so the pooled target used by the first tag above has to be cleared
+    private static final String ONE_TAG_JSON =
+        "{\"Results\":{\"Fiducial\":[{\"fID\":8,\"tx\":-3.5}],\"cl\":12.0,\"tl\":21.5,\"v\":1}}";
+
+    private static final ObjectMapper dataBindingMapper =
+        new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void two_tags_matches_data_binding() throws IOException {
+        assertMatchesDataBinding(new LimelightResultsParser(), readDump("two-tags.json"));
+    }
+
+    @Test
+    void no_tags_matches_data_binding() throws IOException {
+        assertMatchesDataBinding(new LimelightResultsParser(), readDump("no-tags.json"));
+    }
+
+    @Test
+    void fewer_tags_after_more_tags_matches_data_binding() throws IOException {
+        LimelightResultsParser parser = new LimelightResultsParser();
+        assertMatchesDataBinding(parser, THREE_TAGS_JSON);
+        assertMatchesDataBinding(parser, ONE_TAG_JSON);
+        assertMatchesDataBinding(parser, readDump("no-tags.json"));
+        assertMatchesDataBinding(parser, readDump("two-tags.json"));
+    }
+
+    private static void assertMatchesDataBinding(LimelightResultsParser parser, String json) throws IOException {
+        assertTrue(parser.parse(json));
+        Results expected = dataBindingMapper.readValue(json, LimelightResults.class).targetingResults;
+        Results actual = parser.getResults().targetingResults;
+
+        assertEquals(expected.pipelineID, actual.pipelineID, 0);
+        assertEquals(expected.latency_pipeline, actual.latency_pipeline, 0);
+        assertEquals(expected.latency_capture, actual.latency_capture, 0);
+        assertEquals(expected.timestamp_LIMELIGHT_publish, actual.timestamp_LIMELIGHT_publish, 0);
+        assertEquals(expected.timestamp_RIOFPGA_capture, actual.timestamp_RIOFPGA_capture, 0);
+        assertEquals(expected.valid, actual.valid);
+        assertArrayEquals(expected.botpose, actual.botpose, 0);
+        assertArrayEquals(expected.botpose_wpired, actual.botpose_wpired, 0);
+        assertArrayEquals(expected.botpose_wpiblue, actual.botpose_wpiblue, 0);
+        assertArrayEquals(expected.camerapose_robotspace, actual.camerapose_robotspace, 0);
+
+        assertEquals(expected.targets_Fiducials.length, actual.targets_Fiducials.length);
+        for (int i = 0; i < expected.targets_Fiducials.length; i++) {
+            LimelightTarget_Fiducial expectedFiducial = expected.targets_Fiducials[i];
+            LimelightTarget_Fiducial actualFiducial = actual.targets_Fiducials[i];
+            assertEquals(expectedFiducial.fiducialID, actualFiducial.fiducialID, 0);
+            assertEquals(expectedFiducial.fiducialFamily, actualFiducial.fiducialFamily);
+            assertArrayEquals(expectedFiducial.cameraPose_TargetSpace, actualFiducial.cameraPose_TargetSpace, 0);
+            assertArrayEquals(expectedFiducial.robotPose_FieldSpace, actualFiducial.robotPose_FieldSpace, 0);
+            assertArrayEquals(expectedFiducial.robotPose_TargetSpace, actualFiducial.robotPose_TargetSpace, 0);
+            assertArrayEquals(expectedFiducial.targetPose_CameraSpace, actualFiducial.targetPose_CameraSpace, 0);
+            assertArrayEquals(expectedFiducial.targetPose_RobotSpace, actualFiducial.targetPose_RobotSpace, 0);
+            assertEquals(expectedFiducial.ta, actualFiducial.ta, 0);
+            assertEquals(expectedFiducial.tx, actualFiducial.tx, 0);
+            assertEquals(expectedFiducial.tx_pixels, actualFiducial.tx_pixels, 0);
+            assertEquals(expectedFiducial.ty, actualFiducial.ty, 0);
+            assertEquals(expectedFiducial.ty_pixels, actualFiducial.ty_pixels, 0);
+            assertEquals(expectedFiducial.ts, actualFiducial.ts, 0);
+        }
+    }
+
+    private static String fiducialJson(int id, String family, double offset) {
+        String pose = "[" + offset + "," + (offset + 1) + "," + (offset + 2) + "," + (offset + 3) + "," + (offset + 4) + "," + (offset + 5) + "]";
+        return "{\"fID\":" + id + ",\"fam\":\"" + family + "\",\"pts\":[],\"skew\":[]"
+            + ",\"t6c_ts\":" + pose + ",\"t6r_fs\":" + pose + ",\"t6r_ts\":" + pose
+            + ",\"t6t_cs\":" + pose + ",\"t6t_rs\":" + pose
+            + ",\"ta\":" + offset + ",\"tx\":" + (offset + 10) + ",\"txp\":" + (offset + 20)
+            + ",\"ty\":" + (offset + 30) + ",\"typ\":" + (offset + 40) + ",\"ts\":" + (offset + 50) + "}";
+    }
+
+    private static String readDump(String name) throws IOException {
+        return Files.readString(DUMP_DIRECTORY.resolve(name));
+    }
+}
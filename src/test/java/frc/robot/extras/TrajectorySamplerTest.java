@@ -0,0 +1,144 @@
+package frc.robot.extras;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import com.pathplanner.lib.PathPlannerTrajectory.StopEvent;
+import com.pathplanner.lib.PathPoint;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory.State;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrajectorySamplerTest {
+
+    private static final double TOLERANCE = 1e-9;
+
+    // The holonomic rotation crosses from 170 to -170 degrees, so the angles have to wrap
+    private static final PathPlannerTrajectory GENERATED_TRAJECTORY = PathPlanner.generatePath(
+        new PathConstraints(4, 3),
+        List.of(
+            new PathPoint(new Translation2d(1, 1), Rotation2d.fromDegrees(0), Rotation2d.fromDegrees(170)),
+            new PathPoint(new Translation2d(3, 2), Rotation2d.fromDegrees(45), Rotation2d.fromDegrees(-170)),
+            new PathPoint(new Translation2d(5, 4), Rotation2d.fromDegrees(0), Rotation2d.fromDegrees(-90))
+        )
+    );
+
+    // States that are less than a millisecond apart and at the same time
+    private static final PathPlannerTrajectory CLOSE_STATES_TRAJECTORY = makeTrajectory(0, 1, 1.0005, 2, 2, 2, 3);
+
+    @Test
+    void start() {
+        TrajectorySampler sampler = new TrajectorySampler(GENERATED_TRAJECTORY);
+        assertSameState(GENERATED_TRAJECTORY.getInitialState(), sampler.sample(0));
+        assertSameState(GENERATED_TRAJECTORY.getInitialState(), sampler.sample(-1));
+    }
+
+    @Test
+    void end() {
+        TrajectorySampler sampler = new TrajectorySampler(GENERATED_TRAJECTORY);
+        double totalTimeSeconds = GENERATED_TRAJECTORY.getTotalTimeSeconds();
+        assertSameState(GENERATED_TRAJECTORY.getEndState(), sampler.sample(totalTimeSeconds));
+        assertSameState(GENERATED_TRAJECTORY.getEndState(), sampler.sample(totalTimeSeconds + 1));
+        assertSameState(GENERATED_TRAJECTORY.getEndState(), sampler.sample(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void between_states() {
+        TrajectorySampler sampler = new TrajectorySampler(GENERATED_TRAJECTORY);
+        List<State> states = GENERATED_TRAJECTORY.getStates();
+        for (int i = 0; i < states.size() - 1; i++) {
+            double startTime = states.get(i).timeSeconds;
+            double endTime = states.get(i + 1).timeSeconds;
+            for (double fraction : new double[] {0, 0.25, 0.5, 0.75}) {
+                double time = startTime + (endTime - startTime) * fraction;
+                assertSameState(GENERATED_TRAJECTORY.sample(time), sampler.sample(time));
+            }
+        }
+    }
+
+    @Test
+    void every_loop_past_the_end() {
+        TrajectorySampler sampler = new TrajectorySampler(GENERATED_TRAJECTORY);
+        for (double time = 0; time < GENERATED_TRAJECTORY.getTotalTimeSeconds() + 1; time += 0.02) {
+            assertSameState(GENERATED_TRAJECTORY.sample(time), sampler.sample(time));
+        }
+    }
+
+    @Test
+    void time_going_backwards() {
+        TrajectorySampler sampler = new TrajectorySampler(GENERATED_TRAJECTORY);
+        Random random = new Random(2023);
+        for (int i = 0; i < 1000; i++) {
+            double time = (random.nextDouble() * 1.2 - 0.1) * GENERATED_TRAJECTORY.getTotalTimeSeconds();
+            assertSameState(GENERATED_TRAJECTORY.sample(time), sampler.sample(time));
+        }
+    }
+
+    @Test
+    void reset() {
+        TrajectorySampler sampler = new TrajectorySampler(GENERATED_TRAJECTORY);
+        sampler.sample(GENERATED_TRAJECTORY.getTotalTimeSeconds() - 0.1);
+        sampler.reset();
+        assertSameState(GENERATED_TRAJECTORY.sample(0.1), sampler.sample(0.1));
+    }
+
+    @Test
+    void close_states() {
+        TrajectorySampler sampler = new TrajectorySampler(CLOSE_STATES_TRAJECTORY);
+        for (double time : new double[] {0.5, 1, 1.0001, 1.0005, 1.5, 2, 2.5, 2, 1.0002, 0.9, 3}) {
+            assertSameState(CLOSE_STATES_TRAJECTORY.sample(time), sampler.sample(time));
+        }
+    }
+
+    private static void assertSameState(State expectedState, PathPlannerState actualState) {
+        PathPlannerState expected = (PathPlannerState) expectedState;
+        assertEquals(expected.timeSeconds, actualState.timeSeconds, TOLERANCE);
+        assertEquals(expected.velocityMetersPerSecond, actualState.velocityMetersPerSecond, TOLERANCE);
+        assertEquals(expected.accelerationMetersPerSecondSq, actualState.accelerationMetersPerSecondSq, TOLERANCE);
+        assertEquals(expected.angularVelocityRadPerSec, actualState.angularVelocityRadPerSec, TOLERANCE);
+        assertEquals(expected.curvatureRadPerMeter, actualState.curvatureRadPerMeter, TOLERANCE);
+        assertEquals(expected.holonomicAngularVelocityRadPerSec, actualState.holonomicAngularVelocityRadPerSec, TOLERANCE);
+        assertEquals(expected.poseMeters.getX(), actualState.poseMeters.getX(), TOLERANCE);
+        assertEquals(expected.poseMeters.getY(), actualState.poseMeters.getY(), TOLERANCE);
+        assertSameRotation(expected.poseMeters.getRotation(), actualState.poseMeters.getRotation());
+        assertSameRotation(expected.holonomicRotation, actualState.holonomicRotation);
+    }
+
+    private static void assertSameRotation(Rotation2d expected, Rotation2d actual) {
+        assertEquals(0, MathUtil.angleModulus(expected.getRadians() - actual.getRadians()), TOLERANCE);
+    }
+
+    /**
+     * Makes a trajectory along the x axis with a state at each time, the values just need to be different.
+     */
+    private static PathPlannerTrajectory makeTrajectory(double... times) {
+        List<State> states = new ArrayList<>();
+        for (int i = 0; i < times.length; i++) {
+            PathPlannerState state = new PathPlannerState();
+            state.timeSeconds = times[i];
+            state.velocityMetersPerSecond = i;
+            state.accelerationMetersPerSecondSq = -i;
+            state.poseMeters = new Pose2d(i, 2 * i, Rotation2d.fromDegrees(10 * i));
+            state.curvatureRadPerMeter = 0.1 * i;
+            state.angularVelocityRadPerSec = 0.2 * i;
+            state.holonomicRotation = Rotation2d.fromDegrees(-20 * i);
+            state.holonomicAngularVelocityRadPerSec = 0.3 * i;
+            states.add(state);
+        }
+        return new PathPlannerTrajectory(states, Collections.emptyList(), new StopEvent(), new StopEvent(), false);
+    }
+
+}
@@ -0,0 +1,82 @@
+package frc.robot.extras;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import frc.robot.extras.UniformGridInterpolator.Kernel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UniformGridInterpolatorTest {
+
+    private static final double[][] LOOKUP_TABLE = {
+        // {x, increasing y, y that goes up and down}
+        {0, 0, 0},
+        {1, 0.5, 2},
+        {2, 3, -1},
+        {3, 3.5, 4},
+        {4, 10, 4}
+    };
+
+    // Every table point is on a grid point
+    private static final int GRID_POINT_COUNT = 401;
+
+    private static final double TOLERANCE = 1e-9;
+
+    private static final double STEP = 0.001;
+
+    @ParameterizedTest
+    @EnumSource(Kernel.class)
+    void exact_at_table_points(Kernel kernel) {
+        UniformGridInterpolator interpolator = new UniformGridInterpolator(LOOKUP_TABLE, GRID_POINT_COUNT, kernel);
+        double[] output = new double[2];
+        for (double[] row : LOOKUP_TABLE) {
+            interpolator.getLookupValues(row[0], output);
+            for (int j = 0; j < output.length; j++) {
+                assertEquals(row[j + 1], interpolator.getLookupValue(row[0], j), TOLERANCE);
+                assertEquals(row[j + 1], output[j], TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    void monotoneCubic_increasing_between_points() {
+        UniformGridInterpolator interpolator = new UniformGridInterpolator(LOOKUP_TABLE, GRID_POINT_COUNT, Kernel.MONOTONE_CUBIC);
+        double lastValue = interpolator.getLookupValue(0);
+        for (double x = STEP; x <= 4; x += STEP) {
+            double value = interpolator.getLookupValue(x);
+            assertTrue(value >= lastValue - TOLERANCE, "Decreased at x = " + x);
+            lastValue = value;
+        }
+    }
+
+    @Test
+    void monotoneCubic_no_overshoot_between_points() {
+        UniformGridInterpolator interpolator = new UniformGridInterpolator(LOOKUP_TABLE, GRID_POINT_COUNT, Kernel.MONOTONE_CUBIC);
+        for (int i = 0; i < LOOKUP_TABLE.length - 1; i++) {
+            double lowerBound = Math.min(LOOKUP_TABLE[i][2], LOOKUP_TABLE[i + 1][2]);
+            double upperBound = Math.max(LOOKUP_TABLE[i][2], LOOKUP_TABLE[i + 1][2]);
+            for (double x = LOOKUP_TABLE[i][0]; x <= LOOKUP_TABLE[i + 1][0]; x += STEP) {
+                double value = interpolator.getLookupValue(x, 1);
+                assertTrue(value >= lowerBound - TOLERANCE && value <= upperBound + TOLERANCE, "Overshot at x = " + x);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Kernel.class)
+    void clamped_outside_range(Kernel kernel) {
+        UniformGridInterpolator interpolator = new UniformGridInterpolator(LOOKUP_TABLE, GRID_POINT_COUNT, kernel);
+        double[] firstRow = LOOKUP_TABLE[0];
+        double[] lastRow = LOOKUP_TABLE[LOOKUP_TABLE.length - 1];
+        for (int j = 0; j < 2; j++) {
+            assertEquals(firstRow[j + 1], interpolator.getLookupValue(-5, j), TOLERANCE);
+            assertEquals(firstRow[j + 1], interpolator.getLookupValue(Double.NEGATIVE_INFINITY, j), TOLERANCE);
+            assertEquals(lastRow[j + 1], interpolator.getLookupValue(100, j), TOLERANCE);
+            assertEquals(lastRow[j + 1], interpolator.getLookupValue(Double.POSITIVE_INFINITY, j), TOLERANCE);
+        }
+    }
+
+}